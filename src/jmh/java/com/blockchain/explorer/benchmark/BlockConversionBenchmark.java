@@ -0,0 +1,88 @@
+package com.blockchain.explorer.benchmark;
+
+import com.blockchain.explorer.dto.ExtendedBlockData;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.service.BlockConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区块解码与实体转换基准
+ * 覆盖同步热路径：convertValue(ExtendedBlockData) -> convertToBlockEntity -> convertToTransactionEntity
+ * <p>
+ * 运行：mvn -P benchmark -DskipTests package exec:exec
+ * 默认附带 -prof gc 输出分配速率（gc.alloc.rate.norm 为每次操作分配的字节数）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockConversionBenchmark {
+
+    /**
+     * 空区块 / 100笔交易 / 5000笔交易
+     */
+    @Param({ "0", "100", "5000" })
+    public int txCount;
+
+    /**
+     * 与 ExtendedBlockService 相同的 ObjectMapper 配置
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ObjectMapper web3jMapper = ObjectMapperFactory.getObjectMapper();
+
+    private final BlockConverter converter = new BlockConverter();
+
+    private Map<String, Object> rawBlock;
+    private ExtendedBlockData extendedBlock;
+    private List<EthBlock.TransactionObject> txObjects;
+    private BigInteger timestamp;
+
+    @Setup
+    public void setup() {
+        rawBlock = BlockFixtures.rawBlock(txCount);
+        extendedBlock = objectMapper.convertValue(rawBlock, ExtendedBlockData.class);
+        timestamp = ExtendedBlockData.toBigInteger(extendedBlock.getTime());
+        txObjects = new ArrayList<>(txCount);
+        for (Object tx : (List<?>) extendedBlock.getTransactions()) {
+            txObjects.add(web3jMapper.convertValue(tx, EthBlock.TransactionObject.class));
+        }
+    }
+
+    @Benchmark
+    public ExtendedBlockData decodeExtendedBlock() {
+        return objectMapper.convertValue(rawBlock, ExtendedBlockData.class);
+    }
+
+    @Benchmark
+    public Block convertBlockEntity() {
+        return converter.convertToBlockEntity(extendedBlock);
+    }
+
+    @Benchmark
+    public void convertTransactionEntities(Blackhole blackhole) {
+        for (EthBlock.TransactionObject txObject : txObjects) {
+            blackhole.consume(converter.convertToTransactionEntity(txObject, timestamp));
+        }
+    }
+
+    /**
+     * 端到端：原始区块 -> 区块实体 + 交易实体（离线重建路径）
+     */
+    @Benchmark
+    public BlockConverter.ConvertedBlock convertRawBlock() {
+        return converter.convertRawBlock(rawBlock);
+    }
+}
@@ -0,0 +1,86 @@
+package com.blockchain.explorer.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试用区块样本
+ * 以 fixtures/block-template.json（按私链节点 eth_getBlockByNumber(..., true) 返回格式录制，
+ * 含全部私链扩展字段）为模板，按需复制出指定交易数的区块，哈希、nonce、金额等字段按固定种子随机化
+ */
+public final class BlockFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, Object> TEMPLATE = load();
+
+    private BlockFixtures() {
+    }
+
+    /**
+     * 生成包含 txCount 笔交易的原始区块
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> rawBlock(int txCount) {
+        Map<String, Object> block = new LinkedHashMap<>((Map<String, Object>) TEMPLATE.get("block"));
+        Map<String, Object> txTemplate = (Map<String, Object>) TEMPLATE.get("transaction");
+
+        Random random = new Random(txCount);
+        List<Map<String, Object>> transactions = new ArrayList<>(txCount);
+        for (int i = 0; i < txCount; i++) {
+            Map<String, Object> tx = new LinkedHashMap<>(txTemplate);
+            tx.put("hash", randomHex(random, 32));
+            tx.put("from", randomHex(random, 20));
+            tx.put("to", randomHex(random, 20));
+            tx.put("nonce", "0x" + Integer.toHexString(random.nextInt(100000)));
+            tx.put("transactionIndex", "0x" + Integer.toHexString(i));
+            tx.put("value", "0x" + Long.toHexString(random.nextLong() >>> 4));
+            tx.put("gasPrice", "0x" + Long.toHexString(1_000_000_000L + random.nextInt(1_000_000_000)));
+            transactions.add(tx);
+        }
+        block.put("transactions", transactions);
+        block.put("gasUsed", "0x" + Long.toHexString(21000L * txCount));
+        return block;
+    }
+
+    /**
+     * 将原始区块序列化为JSON字节（与节点响应中的 result 部分一致）
+     */
+    public static byte[] rawBlockJson(int txCount) {
+        try {
+            return MAPPER.writeValueAsBytes(rawBlock(txCount));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String randomHex(Random random, int bytes) {
+        StringBuilder sb = new StringBuilder(2 + bytes * 2).append("0x");
+        for (int i = 0; i < bytes; i++) {
+            int b = random.nextInt(256);
+            sb.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, Object> load() {
+        try (InputStream in = BlockFixtures.class.getResourceAsStream("/fixtures/block-template.json")) {
+            if (in == null) {
+                throw new IllegalStateException("fixtures/block-template.json not found on classpath");
+            }
+            return MAPPER.readValue(in, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
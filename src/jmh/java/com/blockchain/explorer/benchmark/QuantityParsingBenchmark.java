@@ -0,0 +1,75 @@
+package com.blockchain.explorer.benchmark;
+
+import com.blockchain.explorer.dto.ExtendedBlockData;
+import com.blockchain.explorer.service.BlockConverter;
+import com.blockchain.explorer.util.HexQuantity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 十六进制数量字段解析基准
+ * 每个区块约15个、每笔交易约6个此类字段；legacy* 为改用 HexQuantity 前的 substring + new BigInteger 写法，用于对比
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuantityParsingBenchmark {
+
+    /**
+     * 典型取值：小整数、gasPrice、时间戳、区块奖励、超出long的余额
+     */
+    private final String[] values = {
+            "0x2", "0x5208", "0x3b9aca07", "0x6720f3b1", "0x96321e3f5c00", "0x1c9c380",
+            "0xde0b6b3a7640000", "0x400c5e3a4fb7ad1d36a4"
+    };
+
+    private final BlockConverter converter = new BlockConverter();
+
+    private final BigInteger timestamp = BigInteger.valueOf(0x6720f3b1L);
+
+    @Benchmark
+    public void toBigInteger(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(ExtendedBlockData.toBigInteger(value));
+        }
+    }
+
+    @Benchmark
+    public void toLong(Blackhole blackhole) {
+        for (int i = 0; i < values.length - 1; i++) {
+            blackhole.consume(ExtendedBlockData.toLong(values[i]));
+        }
+    }
+
+    @Benchmark
+    public void hexToBigInteger(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(HexQuantity.hexToBigInteger(value));
+        }
+    }
+
+    @Benchmark
+    public void legacyToBigInteger(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(new BigInteger(value.substring(2), 16));
+        }
+    }
+
+    @Benchmark
+    public void legacyToLong(Blackhole blackhole) {
+        for (int i = 0; i < values.length - 1; i++) {
+            blackhole.consume(Long.parseLong(values[i].substring(2), 16));
+        }
+    }
+
+    @Benchmark
+    public Object convertTimestamp() {
+        return converter.convertTimestamp(timestamp);
+    }
+}
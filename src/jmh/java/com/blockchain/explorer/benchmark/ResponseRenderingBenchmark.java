@@ -0,0 +1,95 @@
+package com.blockchain.explorer.benchmark;
+
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.service.BlockConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 区块交易列表响应的渲染基准（/api/transactions/block/{n}）
+ * 比较每次请求用 Jackson 序列化（及 gzip 压缩）与直接写出预渲染的 gzip 字节（RenderedBlockStore）
+ * <p>
+ * SampleTime 模式输出平均耗时和 p0.99 等分位数；单线程下每次操作的耗时即为请求占用的CPU时间。
+ * 运行：mvn -P benchmark -DskipTests package exec:exec -Djmh.args="ResponseRenderingBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseRenderingBenchmark {
+
+    /**
+     * 空区块 / 100笔交易 / 5000笔交易
+     */
+    @Param({ "0", "100", "5000" })
+    public int txCount;
+
+    /**
+     * 与 Spring Boot 自动配置的 ObjectMapper 一致（日期输出为ISO字符串）
+     */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private List<Transaction> transactions;
+    private byte[] rendered;
+
+    /**
+     * 响应输出缓冲区（每次操作前清空，模拟写入 servlet 输出流）
+     */
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setup() throws IOException {
+        transactions = new BlockConverter().convertRawBlock(BlockFixtures.rawBlock(txCount)).getTransactions();
+        sink = new ByteArrayOutputStream(1 << 20);
+        writeGzip();
+        rendered = sink.toByteArray();
+    }
+
+    /**
+     * 当前路径：每次请求序列化
+     */
+    @Benchmark
+    public int jackson() throws IOException {
+        sink.reset();
+        objectMapper.writeValue(sink, transactions);
+        return sink.size();
+    }
+
+    /**
+     * 每次请求序列化并压缩（等同开启 server.compression）
+     */
+    @Benchmark
+    public int jacksonGzip() throws IOException {
+        writeGzip();
+        return sink.size();
+    }
+
+    /**
+     * 预渲染：直接写出已压缩的字节
+     */
+    @Benchmark
+    public int preRendered() {
+        sink.reset();
+        sink.write(rendered, 0, rendered.length);
+        return sink.size();
+    }
+
+    private void writeGzip() throws IOException {
+        sink.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(sink)) {
+            objectMapper.writeValue(gzip, transactions);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.blockchain.explorer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 私链 JSON-RPC 模拟器
+ * <p>
+ * 按固定出块速率生成确定性的合成链（同一区块号每次返回相同内容），区块包含全部私链扩展字段。
+ * 支持 eth_blockNumber、eth_getBlockByNumber、eth_getBalance、eth_getSecurityLevel 及 eth_get* 账户方法，
+ * 可配置每块交易数分布、响应延迟和错误注入。
+ */
+public class ChainSimulator {
+
+    /**
+     * 每块交易数分布
+     */
+    public enum TxDistribution {
+        FIXED, UNIFORM, POISSON
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final int BLOCK_CACHE_SIZE = 256;
+
+    private final long initialHeight;
+    private final double blockRate;
+    private final int txPerBlock;
+    private final TxDistribution txDistribution;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Long, ObjectNode> blockCache = new LinkedHashMap<Long, ObjectNode>(BLOCK_CACHE_SIZE, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ObjectNode> eldest) {
+            return size() > BLOCK_CACHE_SIZE;
+        }
+    };
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ChainSimulator(long initialHeight, double blockRate, int txPerBlock, TxDistribution txDistribution,
+            long latencyMs, long latencyJitterMs, double errorRate) {
+        this.initialHeight = initialHeight;
+        this.blockRate = blockRate;
+        this.txPerBlock = txPerBlock;
+        this.txDistribution = txDistribution;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * 启动HTTP服务
+     *
+     * @param port 0表示随机端口
+     * @return 实际监听的RPC地址
+     */
+    public String start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        executor = Executors.newFixedThreadPool(32);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 当前链高
+     */
+    public long height() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return initialHeight + (long) (elapsedSeconds * blockRate);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode request = MAPPER.readTree(in);
+            injectLatency();
+
+            JsonNode response;
+            if (request.isArray()) {
+                ArrayNode batch = NODES.arrayNode();
+                for (JsonNode single : request) {
+                    batch.add(dispatch(single));
+                }
+                response = batch;
+            } else {
+                response = dispatch(request);
+            }
+
+            byte[] body = MAPPER.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ObjectNode dispatch(JsonNode request) {
+        ObjectNode response = NODES.objectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            ObjectNode error = response.putObject("error");
+            error.put("code", -32000);
+            error.put("message", "injected failure");
+            return response;
+        }
+
+        String method = request.path("method").asText();
+        JsonNode params = request.path("params");
+        response.set("result", result(method, params));
+        return response;
+    }
+
+    private JsonNode result(String method, JsonNode params) {
+        switch (method) {
+            case "eth_blockNumber":
+                return NODES.textNode(hex(height()));
+            case "eth_chainId":
+            case "net_version":
+                return NODES.textNode(hex(20251101));
+            case "eth_getBlockByNumber":
+                return getBlockByNumber(params.path(0).asText(), params.path(1).asBoolean(false));
+            case "eth_getCode":
+                return NODES.textNode("0x");
+            case "eth_getLogs":
+                return NODES.arrayNode();
+            case "eth_getStakeFlag":
+                return NODES.textNode(seed(params.path(0).asText(), method) % 2 == 0 ? "0x1" : "0x0");
+            case "eth_getPledgeInfo":
+                return NODES.textNode("{\"amount\":\"" + quantity(params.path(0).asText(), method) + "\"}");
+            case "eth_getDeployedAddress":
+            case "eth_getInvestorAddress":
+            case "eth_getBeneficiaryAddress":
+                return NODES.textNode(address(seed(params.path(0).asText(), method)));
+            default:
+                if (method.startsWith("eth_get")) {
+                    // eth_getBalance / eth_getSecurityLevel / eth_getTransactionCount 及其余数值型账户方法
+                    return NODES.textNode(quantity(params.path(0).asText(), method));
+                }
+                return NODES.nullNode();
+        }
+    }
+
+    private JsonNode getBlockByNumber(String tag, boolean fullTransactions) {
+        long height = height();
+        long number = "latest".equals(tag) || "pending".equals(tag) ? height
+                : "earliest".equals(tag) ? 0 : Long.parseLong(tag.substring(2), 16);
+        if (number > height) {
+            return NODES.nullNode();
+        }
+
+        ObjectNode block;
+        synchronized (blockCache) {
+            block = blockCache.computeIfAbsent(number, this::generateBlock);
+        }
+        if (fullTransactions) {
+            return block;
+        }
+        ObjectNode header = block.deepCopy();
+        ArrayNode hashes = NODES.arrayNode();
+        for (JsonNode tx : block.get("transactions")) {
+            hashes.add(tx.get("hash").asText());
+        }
+        header.set("transactions", hashes);
+        return header;
+    }
+
+    private ObjectNode generateBlock(long number) {
+        Random random = new Random(number);
+        String hash = hash("block", number);
+
+        ObjectNode block = NODES.objectNode();
+        block.put("number", hex(number));
+        block.put("hash", hash);
+        block.put("parentHash", number == 0 ? zeroHash() : hash("block", number - 1));
+        block.put("sha3Uncles", hash("uncles", number));
+        block.put("miner", address(random.nextLong()));
+        block.put("stateRoot", hash("state", number));
+        block.put("transactionsRoot", hash("txroot", number));
+        block.put("receiptsRoot", hash("receipts", number));
+        block.put("logsBloom", "0x" + "0".repeat(512));
+        block.put("difficulty", "0x2");
+        block.put("totalDifficulty", hex(number * 2 + 1));
+        block.put("gasLimit", hex(30_000_000L));
+        block.put("timestamp", hex(1_700_000_000L + number * 3));
+        block.put("extraData", "0x");
+        block.put("mixHash", zeroHash());
+        block.put("nonce", "0x0000000000000000");
+        block.put("size", hex(600));
+        block.putArray("uncles");
+
+        // 私链扩展字段
+        block.put("randomNumber", hash("random", number));
+        block.put("randomRoot", hash("randomRoot", number));
+        block.put("powDifficulty", hex(100_000 + random.nextInt(1000)));
+        block.put("powGas", hex(200_000));
+        block.put("powPrice", hex(1_000_000_000L));
+        block.put("avgRatioNumerator", "0x3");
+        block.put("avgRatioDenominator", "0x4");
+        block.put("avgGasNumerator", "0x5208");
+        block.put("avgGasDenominator", "0x1");
+        block.put("posLeader", address(number % 7));
+        block.put("posVoting", "0x" + address(number % 7).substring(2) + address(number % 5).substring(2));
+        block.put("commitTxLength", "0x0");
+        block.put("tainted", "0x");
+        block.put("incentive", hex(165_000_000_000_000L));
+        block.put("baseFeePerGas", hex(7));
+
+        int txCount = nextTxCount(random);
+        ArrayNode transactions = block.putArray("transactions");
+        for (int i = 0; i < txCount; i++) {
+            ObjectNode tx = transactions.addObject();
+            tx.put("blockHash", hash);
+            tx.put("blockNumber", hex(number));
+            tx.put("hash", hash("tx" + i, number));
+            tx.put("from", address(random.nextInt(10_000)));
+            tx.put("to", address(random.nextInt(10_000)));
+            tx.put("gas", hex(21000));
+            tx.put("gasPrice", hex(1_000_000_000L + random.nextInt(1_000_000_000)));
+            tx.put("input", "0x");
+            tx.put("nonce", hex(random.nextInt(100_000)));
+            tx.put("transactionIndex", hex(i));
+            tx.put("value", hex(Math.abs(random.nextLong() >>> 8)));
+            tx.put("type", hex(random.nextInt(8)));
+            tx.put("chainId", hex(20251101));
+            tx.put("v", "0x1");
+            tx.put("r", hash("r" + i, number));
+            tx.put("s", hash("s" + i, number));
+        }
+        block.put("gasUsed", hex(21000L * txCount));
+        return block;
+    }
+
+    private int nextTxCount(Random random) {
+        switch (txDistribution) {
+            case FIXED:
+                return txPerBlock;
+            case UNIFORM:
+                return random.nextInt(2 * txPerBlock + 1);
+            case POISSON:
+            default:
+                if (txPerBlock > 50) {
+                    // 均值较大时用正态近似
+                    return (int) Math.max(0, Math.round(txPerBlock + random.nextGaussian() * Math.sqrt(txPerBlock)));
+                }
+                double limit = Math.exp(-txPerBlock);
+                double product = random.nextDouble();
+                int count = 0;
+                while (product > limit) {
+                    product *= random.nextDouble();
+                    count++;
+                }
+                return count;
+        }
+    }
+
+    private void injectLatency() throws InterruptedException {
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static String quantity(String address, String method) {
+        return hex(Math.floorMod(seed(address, method), 1_000_000_000_000L));
+    }
+
+    private static long seed(String address, String method) {
+        return (address + method).hashCode() * 0x9E3779B97F4A7C15L;
+    }
+
+    private static String hex(long value) {
+        return "0x" + Long.toHexString(value);
+    }
+
+    private static String address(long seed) {
+        return "0x" + hash("address", seed).substring(26);
+    }
+
+    private static String zeroHash() {
+        return "0x" + "0".repeat(64);
+    }
+
+    private static String hash(String domain, long number) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest((domain + ":" + number).getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(66).append("0x");
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
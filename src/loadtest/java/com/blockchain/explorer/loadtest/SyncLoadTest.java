@@ -0,0 +1,119 @@
+package com.blockchain.explorer.loadtest;
+
+import com.blockchain.explorer.BlockchainExplorerApplication;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.service.BlockWriterService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 同步吞吐压测
+ * <p>
+ * 启动 {@link ChainSimulator}，再以内嵌 H2（MySQL 兼容模式）启动完整应用，让 BlockSyncService 从模拟链同步，
+ * 定期输出 blocks/s、tx/s 和落后链头的区块数。所有参数通过系统属性指定：
+ * <ul>
+ * <li>sim.initial-height：启动时已有的区块数（默认1000，用于测追赶速度）</li>
+ * <li>sim.block-rate：每秒出块数（默认1）</li>
+ * <li>sim.tx-per-block / sim.tx-distribution：每块平均交易数和分布 fixed|uniform|poisson（默认50 / poisson）</li>
+ * <li>sim.latency-ms / sim.latency-jitter-ms：每次RPC的延迟（默认0 / 0）</li>
+ * <li>sim.error-rate：RPC返回错误的概率（默认0）</li>
+ * <li>load.duration-seconds / load.report-seconds：运行时长和报告间隔（默认60 / 5）</li>
+ * <li>load.batch-size / load.interval-ms：覆盖 blockchain.sync.batch-size / interval（默认50 / 100）</li>
+ * <li>load.commit-max-blocks / load.commit-max-wait-ms：覆盖组提交窗口（默认32 / 50，1 / 0 即逐块提交）</li>
+ * </ul>
+ * 运行：mvn -P loadtest -DskipTests compile exec:java -Dsim.latency-ms=5 -Dsim.error-rate=0.01
+ */
+public class SyncLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        ChainSimulator simulator = new ChainSimulator(
+                Long.getLong("sim.initial-height", 1000),
+                Double.parseDouble(System.getProperty("sim.block-rate", "1")),
+                Integer.getInteger("sim.tx-per-block", 50),
+                ChainSimulator.TxDistribution.valueOf(
+                        System.getProperty("sim.tx-distribution", "poisson").toUpperCase(Locale.ROOT)),
+                Long.getLong("sim.latency-ms", 0),
+                Long.getLong("sim.latency-jitter-ms", 0),
+                Double.parseDouble(System.getProperty("sim.error-rate", "0")));
+        long durationSeconds = Long.getLong("load.duration-seconds", 60);
+        long reportSeconds = Long.getLong("load.report-seconds", 5);
+
+        String rpcUrl = simulator.start(0);
+        System.out.printf("Chain simulator listening on %s, initial height %d%n", rpcUrl, simulator.height());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlockchainExplorerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "blockchain.rpc-url=" + rpcUrl,
+                        "blockchain.sync.sync-from-genesis=true",
+                        "blockchain.sync.batch-size=" + Integer.getInteger("load.batch-size", 50),
+                        "blockchain.sync.interval=" + Integer.getInteger("load.interval-ms", 100),
+                        "blockchain.sync.commit-max-blocks=" + Integer.getInteger("load.commit-max-blocks", 32),
+                        "blockchain.sync.commit-max-wait-ms=" + Integer.getInteger("load.commit-max-wait-ms", 50),
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "NON_KEYWORDS=VALUE,DAY;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "logging.level.com.blockchain.explorer=WARN")
+                .run(args);
+
+        BlockRepository blockRepository = context.getBean(BlockRepository.class);
+        TransactionRepository transactionRepository = context.getBean(TransactionRepository.class);
+
+        long start = System.nanoTime();
+        long lastNanos = start;
+        long lastBlocks = 0;
+        long lastTransactions = 0;
+        long maxLag = 0;
+
+        System.out.println("elapsed_s  chain_tip  indexed_tip  lag  blocks/s  tx/s  blocks  txs");
+        while (System.nanoTime() - start < durationSeconds * 1_000_000_000L) {
+            Thread.sleep(reportSeconds * 1000);
+
+            long now = System.nanoTime();
+            long blocks = blockRepository.count();
+            long transactions = transactionRepository.count();
+            long chainTip = simulator.height();
+            BigInteger indexed = blockRepository.findMaxBlockNumber();
+            long indexedTip = indexed == null ? -1 : indexed.longValue();
+            long lag = chainTip - indexedTip;
+            maxLag = Math.max(maxLag, lag);
+            double seconds = (now - lastNanos) / 1e9;
+
+            System.out.printf("%9.1f  %9d  %11d  %3d  %8.1f  %4.0f  %6d  %d%n",
+                    (now - start) / 1e9, chainTip, indexedTip, lag,
+                    (blocks - lastBlocks) / seconds, (transactions - lastTransactions) / seconds,
+                    blocks, transactions);
+
+            lastNanos = now;
+            lastBlocks = blocks;
+            lastTransactions = transactions;
+        }
+
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+        long blocks = blockRepository.count();
+        long transactions = transactionRepository.count();
+        BigInteger indexed = blockRepository.findMaxBlockNumber();
+        long indexedTip = indexed == null ? -1 : indexed.longValue();
+        // 抓取失败时本批停止、写入失败时从窗口第一个区块重新同步，入库区块始终连续；
+        // RPC错误的代价体现为写入失败次数和被丢弃（之后重新抓取）的已抓取区块数
+        Map<String, Object> writer = context.getBean(BlockWriterService.class).getStatus();
+        System.out.printf("Summary: %.1f blocks/s, %.1f tx/s, final lag %d, max lag %d,"
+                        + " write failures %s, blocks dropped %s%n",
+                blocks / totalSeconds, transactions / totalSeconds,
+                simulator.height() - indexedTip, maxLag, writer.get("failures"), writer.get("blocksDropped"));
+
+        int exitCode = SpringApplication.exit(context);
+        simulator.stop();
+        System.exit(exitCode);
+    }
+}
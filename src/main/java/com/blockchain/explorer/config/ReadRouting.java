@@ -0,0 +1,58 @@
+package com.blockchain.explorer.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 查询路由辅助
+ * <p>
+ * 未配置从库时所有方法直接执行查询；配置从库后，接口可以把比从库更新的数据查询改走主库，
+ * 避免刚同步的区块或交易因从库延迟返回404。
+ */
+@Component
+public class ReadRouting {
+
+    @Autowired(required = false)
+    private ReplicaLagMonitor lagMonitor;
+
+    /**
+     * 在主库上执行查询
+     */
+    public <T> T onPrimary(Supplier<T> query) {
+        if (lagMonitor == null || ReadWriteRoutingDataSource.isForcedPrimary()) {
+            return query.get();
+        }
+        ReadWriteRoutingDataSource.setForcedPrimary(true);
+        try {
+            return query.get();
+        } finally {
+            ReadWriteRoutingDataSource.setForcedPrimary(false);
+        }
+    }
+
+    /**
+     * 按区块号查询：从库还没有该区块时走主库
+     */
+    public <T> T forBlock(BigInteger blockNumber, Supplier<T> query) {
+        if (lagMonitor != null && lagMonitor.isBehind(blockNumber)) {
+            return onPrimary(query);
+        }
+        return query.get();
+    }
+
+    /**
+     * 按哈希等无法判断新旧的条件查询：从库未命中且落后于主库时再查一次主库
+     */
+    public <T> Optional<T> findWithFallback(Supplier<Optional<T>> query) {
+        boolean replica = lagMonitor != null && ReadWriteRoutingDataSource.isReplicaRouted(lagMonitor);
+        Optional<T> result = query.get();
+        if (result.isPresent() || !replica || !lagMonitor.isLagging()) {
+            return result;
+        }
+        return onPrimary(query);
+    }
+}
@@ -0,0 +1,69 @@
+package com.blockchain.explorer.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写路由数据源
+ * <p>
+ * 只有标记为只读的线程（GET 接口请求）且不在读写事务中、从库延迟正常时才路由到从库，
+ * 其他情况（同步、事件日志、POST 接口、强制主库的查询）一律使用主库。
+ * 需配合 LazyConnectionDataSourceProxy 使用，使路由在第一条SQL执行时才决定。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    /**
+     * 标记当前线程的查询可以使用从库
+     */
+    public static void markReadOnly() {
+        READ_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        READ_ONLY.remove();
+        FORCE_PRIMARY.remove();
+    }
+
+    static boolean isForcedPrimary() {
+        return FORCE_PRIMARY.get() != null;
+    }
+
+    static void setForcedPrimary(boolean forced) {
+        if (forced) {
+            FORCE_PRIMARY.set(Boolean.TRUE);
+        } else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    /**
+     * 当前线程的查询是否会路由到从库
+     */
+    static boolean isReplicaRouted(ReplicaLagMonitor lagMonitor) {
+        if (READ_ONLY.get() == null || FORCE_PRIMARY.get() != null) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return lagMonitor.isHealthy();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isReplicaRouted(lagMonitor) ? REPLICA : PRIMARY;
+    }
+}
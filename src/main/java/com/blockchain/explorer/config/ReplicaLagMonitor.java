@@ -0,0 +1,98 @@
+package com.blockchain.explorer.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 从库延迟监控
+ * <p>
+ * 定时分别读取主库和从库的最新区块号：从库查询失败或落后超过 max-lag-blocks 时视为不可用，读请求全部回到主库；
+ * 延迟范围内时，查询比从库最新区块更新的数据（刚同步的区块、按哈希未命中）由 {@link ReadRouting} 改走主库。
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String MAX_BLOCK_SQL = "SELECT MAX(block_number) FROM blocks";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagBlocks;
+
+    private volatile boolean healthy = false;
+    private volatile long primaryHead = -1;
+    private volatile long replicaHead = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagBlocks) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagBlocks = maxLagBlocks;
+    }
+
+    /**
+     * 检查从库延迟
+     */
+    @Scheduled(fixedDelayString = "${blockchain.datasource.replica.lag-check-interval:1000}")
+    public void check() {
+        try {
+            primaryHead = queryHead(primary);
+        } catch (Exception e) {
+            log.warn("Failed to read primary head: {}", e.getMessage());
+            return;
+        }
+        boolean nowHealthy;
+        try {
+            replicaHead = queryHead(replica);
+            nowHealthy = primaryHead - replicaHead <= maxLagBlocks;
+        } catch (Exception e) {
+            log.warn("Failed to read replica head: {}", e.getMessage());
+            nowHealthy = false;
+        }
+        if (nowHealthy != healthy) {
+            log.info("Replica {} (primary head {}, replica head {}, max lag {})",
+                    nowHealthy ? "in use" : "bypassed", primaryHead, replicaHead, maxLagBlocks);
+        }
+        healthy = nowHealthy;
+    }
+
+    /**
+     * 从库是否可用于读请求
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * 从库是否还没有该区块
+     */
+    public boolean isBehind(BigInteger blockNumber) {
+        return blockNumber != null && blockNumber.compareTo(BigInteger.valueOf(replicaHead)) > 0;
+    }
+
+    /**
+     * 从库是否落后于主库
+     */
+    public boolean isLagging() {
+        return replicaHead < primaryHead;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("healthy", healthy);
+        status.put("primaryHead", primaryHead);
+        status.put("replicaHead", replicaHead);
+        status.put("lagBlocks", primaryHead - replicaHead);
+        status.put("maxLagBlocks", maxLagBlocks);
+        return status;
+    }
+
+    private static long queryHead(JdbcTemplate jdbcTemplate) {
+        Long head = jdbcTemplate.queryForObject(MAX_BLOCK_SQL, Long.class);
+        return head == null ? -1 : head;
+    }
+}
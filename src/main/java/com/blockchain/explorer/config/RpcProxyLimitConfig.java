@@ -0,0 +1,151 @@
+package com.blockchain.explorer.config;
+
+import com.blockchain.explorer.util.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 代理RPC接口的并发限制
+ * <p>
+ * 账户类接口每个请求都会调用节点，同步也依赖同一个节点。每组接口持有固定数量的许可，
+ * 许可用完时请求最多等待 acquire-timeout-ms，仍拿不到则直接返回 429（Retry-After: 1），
+ * 突发流量只会被拒绝，不会堆积到节点上。相同的并发查询另由 {@link SingleFlight} 合并为一次节点调用。
+ */
+@Slf4j
+@Configuration
+public class RpcProxyLimitConfig implements WebMvcConfigurer {
+
+    private static final String PERMIT_ATTRIBUTE = RpcProxyLimitConfig.class.getName() + ".permit";
+
+    @Autowired
+    private SingleFlight rpcSingleFlight;
+
+    @Value("${blockchain.rpc-proxy.acquire-timeout-ms:50}")
+    private long acquireTimeoutMs;
+
+    @Value("${blockchain.rpc-proxy.max-concurrent.balance:32}")
+    private int maxBalance;
+
+    @Value("${blockchain.rpc-proxy.max-concurrent.security-level:32}")
+    private int maxSecurityLevel;
+
+    /**
+     * full-info 一次请求调用十几个RPC方法，单独限制
+     */
+    @Value("${blockchain.rpc-proxy.max-concurrent.full-info:8}")
+    private int maxFullInfo;
+
+    @Value("${blockchain.rpc-proxy.max-concurrent.account:16}")
+    private int maxAccount;
+
+    private final Map<String, EndpointLimit> limits = new LinkedHashMap<>();
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        register(registry, new EndpointLimit("balance", maxBalance), "/api/accounts/*/balance");
+        register(registry, new EndpointLimit("security-level", maxSecurityLevel),
+                "/api/accounts/*/security-level");
+        register(registry, new EndpointLimit("full-info", maxFullInfo), "/api/account/*/full-info");
+        register(registry, new EndpointLimit("account", maxAccount),
+                "/api/account/*/basic", "/api/account/*/interest", "/api/account/*/stats",
+                "/api/account/*/pledge", "/api/account/*/contract");
+    }
+
+    /**
+     * 各组接口的并发和拒绝计数，以及请求合并情况
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (EndpointLimit limit : limits.values()) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("maxConcurrent", limit.maxConcurrent);
+            status.put("active", limit.maxConcurrent - limit.permits.availablePermits());
+            status.put("accepted", limit.accepted.get());
+            status.put("rejected", limit.rejected.get());
+            endpoints.put(limit.name, status);
+        }
+
+        Map<String, Object> coalescing = new LinkedHashMap<>();
+        coalescing.put("upstreamCalls", rpcSingleFlight.getCalls());
+        coalescing.put("sharedCalls", rpcSingleFlight.getShared());
+        coalescing.put("inFlight", rpcSingleFlight.getInFlight());
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("acquireTimeoutMs", acquireTimeoutMs);
+        status.put("endpoints", endpoints);
+        status.put("coalescing", coalescing);
+        return status;
+    }
+
+    private void register(InterceptorRegistry registry, EndpointLimit limit, String... patterns) {
+        limits.put(limit.name, limit);
+        registry.addInterceptor(limit).addPathPatterns(patterns);
+    }
+
+    /**
+     * 一组接口的许可
+     */
+    private class EndpointLimit implements HandlerInterceptor {
+        private final String name;
+        private final int maxConcurrent;
+        private final Semaphore permits;
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        EndpointLimit(String name, int maxConcurrent) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws IOException {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected.incrementAndGet();
+                log.debug("Rejected {} ({} concurrent requests)", request.getRequestURI(), maxConcurrent);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many concurrent requests, retry later\"}");
+                return false;
+            }
+            accepted.incrementAndGet();
+            request.setAttribute(PERMIT_ATTRIBUTE + "." + name, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                Exception ex) {
+            if (request.getAttribute(PERMIT_ATTRIBUTE + "." + name) != null) {
+                request.removeAttribute(PERMIT_ATTRIBUTE + "." + name);
+                permits.release();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.blockchain.explorer.config;
 
+import com.blockchain.explorer.util.SingleFlight;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,4 +23,12 @@ public class Web3jConfig {
     public Web3j web3j() {
         return Web3j.build(new HttpService(rpcUrl));
     }
+
+    /**
+     * 接口代理RPC的请求合并：相同的并发查询共享一次节点调用
+     */
+    @Bean
+    public SingleFlight rpcSingleFlight() {
+        return new SingleFlight();
+    }
 }
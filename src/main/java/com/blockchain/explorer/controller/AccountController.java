@@ -2,7 +2,10 @@ package com.blockchain.explorer.controller;
 
 import com.blockchain.explorer.entity.AccountState;
 import com.blockchain.explorer.repository.AccountStateRepository;
+import com.blockchain.explorer.service.AccountLeaderboardService;
 import com.blockchain.explorer.service.CustomRpcService;
+import com.blockchain.explorer.service.ExtendedAccountService;
+import com.blockchain.explorer.service.SearchIndexService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +16,7 @@ import org.web3j.protocol.core.DefaultBlockParameter;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,9 +33,41 @@ public class AccountController {
     @Autowired
     private CustomRpcService customRpcService;
 
+    @Autowired
+    private ExtendedAccountService extendedAccountService;
+
     @Autowired
     private Web3j web3j;
 
+    @Autowired
+    private AccountLeaderboardService accountLeaderboardService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * 账户排行榜（内存Top-K，不查询数据库）
+     *
+     * @param by    排序指标：balance / pledgeAmount / totalValueTx
+     * @param limit 返回条数
+     */
+    @GetMapping("/top")
+    public ResponseEntity<Map<String, Object>> getTopAccounts(
+            @RequestParam(defaultValue = "balance") String by,
+            @RequestParam(defaultValue = "20") int limit) {
+        AccountLeaderboardService.Metric metric = AccountLeaderboardService.Metric.fromProperty(by);
+        if (metric == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown metric: " + by));
+        }
+
+        List<Map<String, Object>> accounts = accountLeaderboardService.getTop(metric, limit);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("by", metric.getProperty());
+        result.put("accounts", accounts);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 查询账户完整信息（包括余额和安全级别）
      */
@@ -48,9 +84,8 @@ public class AccountController {
     @GetMapping("/{address}/balance")
     public ResponseEntity<Map<String, Object>> getBalance(@PathVariable String address) {
         try {
-            BigInteger balance = web3j.ethGetBalance(
-                    address,
-                    DefaultBlockParameter.valueOf("latest")).send().getBalance();
+            // 相同地址的并发查询共享一次节点调用
+            BigInteger balance = extendedAccountService.getBalance(address, null);
 
             Map<String, Object> result = new HashMap<>();
             result.put("address", address);
@@ -106,7 +141,10 @@ public class AccountController {
             accountState.setSecurityLevel(securityLevel);
             accountState.setLastUpdated(LocalDateTime.now());
 
+            // 先登记到搜索索引再写库，新地址不会被判定为不存在
+            searchIndexService.registerAddress(address);
             accountState = accountStateRepository.save(accountState);
+            accountLeaderboardService.onAccountUpdated(accountState);
 
             log.info("Refreshed account state for {}", address);
             return ResponseEntity.ok(accountState);
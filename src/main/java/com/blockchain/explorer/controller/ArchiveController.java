@@ -0,0 +1,40 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.service.RawBlockArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 原始区块归档查询API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+
+    @Autowired
+    private RawBlockArchiveService rawBlockArchiveService;
+
+    /**
+     * 读取归档的原始区块JSON（与 eth_getBlockByNumber 返回结果一致）
+     */
+    @GetMapping("/blocks/{blockNumber}")
+    public ResponseEntity<byte[]> getRawBlock(@PathVariable long blockNumber) {
+        if (!rawBlockArchiveService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            byte[] json = rawBlockArchiveService.read(blockNumber);
+            if (json == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+        } catch (Exception e) {
+            log.error("Error reading archived block {}", blockNumber, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
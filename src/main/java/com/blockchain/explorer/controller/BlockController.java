@@ -1,17 +1,22 @@
 package com.blockchain.explorer.controller;
 
+import com.blockchain.explorer.config.ReadRouting;
 import com.blockchain.explorer.entity.Block;
 import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.service.RenderedBlockStore;
+import com.blockchain.explorer.service.SearchIndexService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigInteger;
+import java.util.Map;
 
 /**
  * 区块查询API
@@ -24,6 +29,15 @@ public class BlockController {
     @Autowired
     private BlockRepository blockRepository;
 
+    @Autowired
+    private ReadRouting readRouting;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RenderedBlockStore renderedBlockStore;
+
     /**
      * 获取最新区块
      */
@@ -40,14 +54,31 @@ public class BlockController {
     }
 
     /**
-     * 按区块号查询
+     * 预渲染响应的存储情况（条目数、占用字节、命中次数）
+     */
+    @GetMapping("/rendered")
+    public ResponseEntity<Map<String, Object>> getRenderedStatus() {
+        return ResponseEntity.ok(renderedBlockStore.getStatus());
+    }
+
+    /**
+     * 按区块号查询，超过已索引的最大区块号时不查询数据库
+     * 已确认的区块直接返回预渲染的响应体（启用 blockchain.rendered.enabled 时）
      */
     @GetMapping("/{blockNumber}")
-    public ResponseEntity<Block> getBlockByNumber(@PathVariable String blockNumber) {
+    public ResponseEntity<?> getBlockByNumber(@PathVariable String blockNumber,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             BigInteger number = new BigInteger(blockNumber);
-            return blockRepository.findByBlockNumber(number)
-                    .map(ResponseEntity::ok)
+            if (!searchIndexService.mightContainBlockNumber(number)) {
+                return ResponseEntity.notFound().build();
+            }
+            byte[] rendered = renderedBlockStore.getBlock(number);
+            if (rendered != null) {
+                return RenderedBlockStore.toResponse(rendered, acceptEncoding);
+            }
+            return readRouting.forBlock(number, () -> blockRepository.findByBlockNumber(number))
+                    .map(block -> render(block, acceptEncoding))
                     .orElse(ResponseEntity.notFound().build());
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
@@ -55,12 +86,20 @@ public class BlockController {
     }
 
     /**
-     * 按区块哈希查询
+     * 按区块哈希查询，搜索索引的过滤器判定不存在时不查询数据库
      */
     @GetMapping("/hash/{blockHash}")
-    public ResponseEntity<Block> getBlockByHash(@PathVariable String blockHash) {
-        return blockRepository.findByBlockHash(blockHash)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getBlockByHash(@PathVariable String blockHash,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!searchIndexService.mightContainBlockHash(blockHash)) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] rendered = renderedBlockStore.getBlockByHash(blockHash);
+        if (rendered != null) {
+            return RenderedBlockStore.toResponse(rendered, acceptEncoding);
+        }
+        return readRouting.findWithFallback(() -> blockRepository.findByBlockHash(blockHash))
+                .map(block -> render(block, acceptEncoding))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -79,4 +118,12 @@ public class BlockController {
         Page<Block> blocks = blockRepository.findAll(pageable);
         return ResponseEntity.ok(blocks);
     }
+
+    /**
+     * 已确认的区块渲染保存后返回预渲染的响应体，否则按原方式序列化
+     */
+    private ResponseEntity<?> render(Block block, String acceptEncoding) {
+        byte[] rendered = renderedBlockStore.putBlock(block);
+        return rendered != null ? RenderedBlockStore.toResponse(rendered, acceptEncoding) : ResponseEntity.ok(block);
+    }
 }
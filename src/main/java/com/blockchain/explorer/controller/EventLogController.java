@@ -0,0 +1,84 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.entity.EventLog;
+import com.blockchain.explorer.repository.EventLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 事件日志查询API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/logs")
+public class EventLogController {
+
+    @Autowired
+    private EventLogRepository eventLogRepository;
+
+    /**
+     * 按合约地址和/或 topic0 查询日志（按区块倒序，游标分页）
+     *
+     * @param address        合约地址
+     * @param topic0         事件签名哈希
+     * @param fromBlock      最早区块号（含）
+     * @param beforeBlock    上一页最后一条的区块号（首页不传）
+     * @param beforeLogIndex 上一页最后一条的日志索引
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getLogs(
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) String topic0,
+            @RequestParam(defaultValue = "0") BigInteger fromBlock,
+            @RequestParam(required = false) BigInteger beforeBlock,
+            @RequestParam(required = false) Integer beforeLogIndex,
+            @RequestParam(defaultValue = "50") int size) {
+        String normalizedAddress = address == null ? null : address.toLowerCase(Locale.ROOT);
+        String normalizedTopic = topic0 == null ? null : topic0.toLowerCase(Locale.ROOT);
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), 500));
+
+        // 首页：从最大区块号之后开始
+        BigInteger before = beforeBlock != null ? beforeBlock : BigInteger.valueOf(Long.MAX_VALUE);
+        int beforeIndex = beforeBlock != null && beforeLogIndex != null ? beforeLogIndex : Integer.MAX_VALUE;
+
+        List<EventLog> logs;
+        if (normalizedAddress != null && normalizedTopic != null) {
+            logs = eventLogRepository.findByAddressAndTopic0Before(normalizedAddress, normalizedTopic, fromBlock,
+                    before, beforeIndex, pageable);
+        } else if (normalizedAddress != null) {
+            logs = eventLogRepository.findByAddressBefore(normalizedAddress, fromBlock, before, beforeIndex,
+                    pageable);
+        } else if (normalizedTopic != null) {
+            logs = eventLogRepository.findByTopic0Before(normalizedTopic, fromBlock, before, beforeIndex, pageable);
+        } else {
+            logs = eventLogRepository.findAllBefore(fromBlock, before, beforeIndex, pageable);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("logs", logs);
+        if (logs.size() == pageable.getPageSize()) {
+            EventLog last = logs.get(logs.size() - 1);
+            result.put("nextBeforeBlock", last.getBlockNumber());
+            result.put("nextBeforeLogIndex", last.getLogIndex());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 查询交易产生的日志
+     */
+    @GetMapping("/tx/{txHash}")
+    public ResponseEntity<List<EventLog>> getLogsByTransaction(@PathVariable String txHash) {
+        return ResponseEntity.ok(eventLogRepository.findByTxHashOrderByLogIndexAsc(txHash));
+    }
+}
@@ -0,0 +1,118 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.service.ExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 批量导出API
+ * 按区块范围流式输出 NDJSON 或 CSV，可选 gzip 压缩。
+ * 输出按区块号（交易再按交易索引）升序，中断后可用最后收到的位置作为 fromBlock / afterIndex 续传。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    /**
+     * 导出区块
+     *
+     * @param fromBlock 起始区块号（含）
+     * @param toBlock   结束区块号（含），默认为已同步的最新区块
+     * @param format    ndjson / csv
+     * @param gzip      是否gzip压缩
+     */
+    @GetMapping("/blocks")
+    public void exportBlocks(
+            @RequestParam(defaultValue = "0") long fromBlock,
+            @RequestParam(required = false) Long toBlock,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = parseFormat(format, response);
+        if (exportFormat == null) {
+            return;
+        }
+        long upperBound = resolveToBlock(toBlock);
+
+        try (OutputStream out = open(response, "blocks", fromBlock, upperBound, exportFormat, gzip)) {
+            long rows = exportService.exportBlocks(fromBlock, upperBound, exportFormat, out);
+            log.info("Exported {} blocks in range [{}, {}]", rows, fromBlock, upperBound);
+        }
+    }
+
+    /**
+     * 导出交易
+     *
+     * @param fromBlock  起始区块号（含）
+     * @param afterIndex 续传时跳过 fromBlock 中交易索引小于等于该值的交易
+     * @param toBlock    结束区块号（含），默认为已同步的最新区块
+     * @param format     ndjson / csv
+     * @param gzip       是否gzip压缩
+     */
+    @GetMapping("/transactions")
+    public void exportTransactions(
+            @RequestParam(defaultValue = "0") long fromBlock,
+            @RequestParam(required = false) Integer afterIndex,
+            @RequestParam(required = false) Long toBlock,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = parseFormat(format, response);
+        if (exportFormat == null) {
+            return;
+        }
+        long upperBound = resolveToBlock(toBlock);
+
+        try (OutputStream out = open(response, "transactions", fromBlock, upperBound, exportFormat, gzip)) {
+            long rows = exportService.exportTransactions(fromBlock, afterIndex, upperBound, exportFormat, out);
+            log.info("Exported {} transactions in range [{}, {}]", rows, fromBlock, upperBound);
+        }
+    }
+
+    private ExportService.Format parseFormat(String format, HttpServletResponse response) throws IOException {
+        try {
+            return ExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported format: " + format);
+            return null;
+        }
+    }
+
+    private long resolveToBlock(Long toBlock) {
+        if (toBlock != null) {
+            return toBlock;
+        }
+        BigInteger max = blockRepository.findMaxBlockNumber();
+        return max == null ? -1 : max.longValue();
+    }
+
+    private OutputStream open(HttpServletResponse response, String name, long fromBlock, long toBlock,
+            ExportService.Format format, boolean gzip) throws IOException {
+        String extension = format == ExportService.Format.CSV ? "csv" : "ndjson";
+        String fileName = name + "-" + fromBlock + "-" + toBlock + "." + extension + (gzip ? ".gz" : "");
+
+        response.setContentType(gzip ? "application/gzip"
+                : format == ExportService.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        OutputStream out = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+    }
+}
@@ -1,12 +1,13 @@
 package com.blockchain.explorer.controller;
 
+import com.blockchain.explorer.service.ContractRegistryService;
+import com.blockchain.explorer.service.CustomRpcService;
 import com.blockchain.explorer.service.ExtendedAccountService;
+import com.blockchain.explorer.service.HistoricalStateCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.DefaultBlockParameter;
 
 import java.math.BigInteger;
 import java.util.HashMap;
@@ -15,6 +16,7 @@ import java.util.Map;
 /**
  * 扩展账户控制器
  * 提供EOA账户和合约账户的所有扩展字段查询
+ * 所有接口支持 ?block=N 查询指定高度的状态，默认为已索引的最新区块，同一响应内的字段读取自同一高度
  */
 @Slf4j
 @RestController
@@ -22,64 +24,68 @@ import java.util.Map;
 public class ExtendedAccountController {
 
     @Autowired
-    private Web3j web3j;
+    private ExtendedAccountService extendedAccountService;
 
     @Autowired
-    private ExtendedAccountService extendedAccountService;
+    private CustomRpcService customRpcService;
+
+    @Autowired
+    private HistoricalStateCache historicalStateCache;
+
+    @Autowired
+    private ContractRegistryService contractRegistryService;
 
     /**
-     * 判断是否为合约账户
+     * 判断在查询高度是否为合约账户（同步时已识别；是合约时按该高度判断是否已部署）
      */
-    private boolean isContract(String address) {
-        try {
-            String code = web3j.ethGetCode(address, DefaultBlockParameter.valueOf("latest"))
-                    .send().getCode();
-            return code != null && !code.equals("0x");
-        } catch (Exception e) {
-            log.error("Error checking if address {} is contract", address, e);
-            return false;
-        }
+    private boolean isContract(String address, BigInteger blockNumber) {
+        return contractRegistryService.isContract(address, blockNumber);
     }
 
     /**
      * 获取账户完整扩展信息（自动区分EOA和合约）
      */
     @GetMapping("/{address}/full-info")
-    public ResponseEntity<Map<String, Object>> getFullAccountInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getFullAccountInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
             Map<String, Object> result = new HashMap<>();
-            boolean isContract = isContract(address);
+            boolean isContract = isContract(address, blockNumber);
 
             result.put("address", address);
+            result.put("blockNumber", blockNumber);
             result.put("isContract", isContract);
 
             // 基础信息（所有账户共有）
-            Map<String, Object> basicInfo = getBasicInfoData(address);
+            Map<String, Object> basicInfo = getBasicInfoData(address, blockNumber);
             result.put("basicInfo", basicInfo);
 
             // 利息相关（所有账户共有）
-            Map<String, Object> interestInfo = getInterestInfoData(address);
+            Map<String, Object> interestInfo = getInterestInfoData(address, blockNumber);
             result.put("interestInfo", interestInfo);
 
             // 统计信息（所有账户共有）
-            Map<String, Object> statsInfo = getStatsInfoData(address);
+            Map<String, Object> statsInfo = getStatsInfoData(address, blockNumber);
             result.put("statsInfo", statsInfo);
 
             // 质押信息（主要用于EOA）
             if (!isContract) {
-                Map<String, Object> pledgeInfo = getPledgeInfoData(address);
+                Map<String, Object> pledgeInfo = getPledgeInfoData(address, blockNumber);
                 result.put("pledgeInfo", pledgeInfo);
             }
 
             // 合约相关信息（仅合约账户）
             if (isContract) {
-                Map<String, Object> contractInfo = getContractInfoData(address);
+                Map<String, Object> contractInfo = getContractInfoData(address, blockNumber);
                 result.put("contractInfo", contractInfo);
             }
 
             log.info("Successfully fetched full info for {} (contract={})", address, isContract);
             return ResponseEntity.ok(result);
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch full info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -90,10 +96,15 @@ public class ExtendedAccountController {
      * 获取基础信息
      */
     @GetMapping("/{address}/basic")
-    public ResponseEntity<Map<String, Object>> getBasicInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getBasicInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
-            Map<String, Object> info = getBasicInfoData(address);
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
+            Map<String, Object> info = getBasicInfoData(address, blockNumber);
+            info.put("blockNumber", blockNumber);
             return ResponseEntity.ok(info);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch basic info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -104,10 +115,15 @@ public class ExtendedAccountController {
      * 获取利息相关信息
      */
     @GetMapping("/{address}/interest")
-    public ResponseEntity<Map<String, Object>> getInterestInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getInterestInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
-            Map<String, Object> info = getInterestInfoData(address);
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
+            Map<String, Object> info = getInterestInfoData(address, blockNumber);
+            info.put("blockNumber", blockNumber);
             return ResponseEntity.ok(info);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch interest info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -118,10 +134,15 @@ public class ExtendedAccountController {
      * 获取统计信息
      */
     @GetMapping("/{address}/stats")
-    public ResponseEntity<Map<String, Object>> getStatsInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getStatsInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
-            Map<String, Object> info = getStatsInfoData(address);
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
+            Map<String, Object> info = getStatsInfoData(address, blockNumber);
+            info.put("blockNumber", blockNumber);
             return ResponseEntity.ok(info);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch stats info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -132,13 +153,18 @@ public class ExtendedAccountController {
      * 获取质押信息（EOA账户）
      */
     @GetMapping("/{address}/pledge")
-    public ResponseEntity<Map<String, Object>> getPledgeInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getPledgeInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
-            if (isContract(address)) {
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
+            if (isContract(address, blockNumber)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Contract accounts don't have pledge info"));
             }
-            Map<String, Object> info = getPledgeInfoData(address);
+            Map<String, Object> info = getPledgeInfoData(address, blockNumber);
+            info.put("blockNumber", blockNumber);
             return ResponseEntity.ok(info);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch pledge info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -149,89 +175,100 @@ public class ExtendedAccountController {
      * 获取合约信息（合约账户）
      */
     @GetMapping("/{address}/contract")
-    public ResponseEntity<Map<String, Object>> getContractInfo(@PathVariable String address) {
+    public ResponseEntity<Map<String, Object>> getContractInfo(@PathVariable String address,
+            @RequestParam(required = false) BigInteger block) {
         try {
-            if (!isContract(address)) {
+            BigInteger blockNumber = historicalStateCache.resolveBlock(block);
+            if (!isContract(address, blockNumber)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Not a contract account"));
             }
-            Map<String, Object> info = getContractInfoData(address);
+            Map<String, Object> info = getContractInfoData(address, blockNumber);
+            info.put("blockNumber", blockNumber);
             return ResponseEntity.ok(info);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to fetch contract info for {}", address, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
         }
     }
 
+    /**
+     * 历史状态缓存指标
+     */
+    @GetMapping("/state-cache")
+    public ResponseEntity<Map<String, Object>> getStateCacheStatus() {
+        return ResponseEntity.ok(historicalStateCache.getStatus());
+    }
+
     // ===== 私有辅助方法 =====
 
-    private Map<String, Object> getBasicInfoData(String address) throws Exception {
+    private Map<String, Object> getBasicInfoData(String address, BigInteger blockNumber) throws Exception {
         Map<String, Object> info = new HashMap<>();
 
         // 余额
-        BigInteger balance = web3j.ethGetBalance(address, DefaultBlockParameter.valueOf("latest"))
-                .send().getBalance();
+        BigInteger balance = extendedAccountService.getBalance(address, blockNumber);
         info.put("balance", balance.toString());
 
         // Nonce
-        BigInteger nonce = web3j.ethGetTransactionCount(address, DefaultBlockParameter.valueOf("latest"))
-                .send().getTransactionCount();
+        BigInteger nonce = extendedAccountService.getNonce(address, blockNumber);
         info.put("nonce", nonce.toString());
 
         // 安全级别
-        BigInteger securityLevel = extendedAccountService.getInterest(address); // 使用自定义服务
+        BigInteger securityLevel = customRpcService.getSecurityLevel(address, blockNumber); // 使用自定义服务
         info.put("securityLevel", securityLevel.toString());
 
         // 后量子计数器
-        BigInteger postQuanCounter = extendedAccountService.getPostQuanCounter(address);
+        BigInteger postQuanCounter = extendedAccountService.getPostQuanCounter(address, blockNumber);
         info.put("postQuanCounter", postQuanCounter.toString());
 
         return info;
     }
 
-    private Map<String, Object> getInterestInfoData(String address) {
+    private Map<String, Object> getInterestInfoData(String address, BigInteger blockNumber) {
         Map<String, Object> info = new HashMap<>();
 
-        info.put("interest", extendedAccountService.getInterest(address).toString());
-        info.put("currentInterest", extendedAccountService.getCurrentInterest(address).toString());
-        info.put("earnInterest", extendedAccountService.getEarnInterest(address).toString());
-        info.put("interestRate", extendedAccountService.getInterestRate(address).toString());
+        info.put("interest", extendedAccountService.getInterest(address, blockNumber).toString());
+        info.put("currentInterest", extendedAccountService.getCurrentInterest(address, blockNumber).toString());
+        info.put("earnInterest", extendedAccountService.getEarnInterest(address, blockNumber).toString());
+        info.put("interestRate", extendedAccountService.getInterestRate(address, blockNumber).toString());
 
         return info;
     }
 
-    private Map<String, Object> getStatsInfoData(String address) {
+    private Map<String, Object> getStatsInfoData(String address, BigInteger blockNumber) {
         Map<String, Object> info = new HashMap<>();
 
-        info.put("totalNumberOfGas", extendedAccountService.getTotalNumberOfGas(address).toString());
-        info.put("contractCallCount", extendedAccountService.getContractCallCount(address).toString());
-        info.put("totalValueTx", extendedAccountService.getTotalValueTx(address).toString());
+        info.put("totalNumberOfGas", extendedAccountService.getTotalNumberOfGas(address, blockNumber).toString());
+        info.put("contractCallCount", extendedAccountService.getContractCallCount(address, blockNumber).toString());
+        info.put("totalValueTx", extendedAccountService.getTotalValueTx(address, blockNumber).toString());
 
         return info;
     }
 
-    private Map<String, Object> getPledgeInfoData(String address) {
+    private Map<String, Object> getPledgeInfoData(String address, BigInteger blockNumber) {
         Map<String, Object> info = new HashMap<>();
 
-        info.put("pledgedAmount", extendedAccountService.getPledgeAmount(address).toString());
-        info.put("pledgeYear", extendedAccountService.getPledgeYear(address).toString());
-        info.put("startTime", extendedAccountService.getStartTime(address).toString());
-        info.put("stakeFlag", extendedAccountService.getStakeFlag(address));
+        info.put("pledgedAmount", extendedAccountService.getPledgeAmount(address, blockNumber).toString());
+        info.put("pledgeYear", extendedAccountService.getPledgeYear(address, blockNumber).toString());
+        info.put("startTime", extendedAccountService.getStartTime(address, blockNumber).toString());
+        info.put("stakeFlag", extendedAccountService.getStakeFlag(address, blockNumber));
 
         // 整合接口
-        String pledgeInfoStr = extendedAccountService.getPledgeInfo(address);
+        String pledgeInfoStr = extendedAccountService.getPledgeInfo(address, blockNumber);
         info.put("pledgeInfoRaw", pledgeInfoStr);
 
         return info;
     }
 
-    private Map<String, Object> getContractInfoData(String address) {
+    private Map<String, Object> getContractInfoData(String address, BigInteger blockNumber) {
         Map<String, Object> info = new HashMap<>();
 
-        info.put("annualFee", extendedAccountService.getAnnualFee(address).toString());
-        info.put("lastAnnualFeeTime", extendedAccountService.getLastAnnualFeeTime(address).toString());
-        info.put("deployedAddress", extendedAccountService.getDeployedAddress(address));
-        info.put("investorAddress", extendedAccountService.getInvestorAddress(address));
-        info.put("beneficiaryAddress", extendedAccountService.getBeneficiaryAddress(address));
+        info.put("annualFee", extendedAccountService.getAnnualFee(address, blockNumber).toString());
+        info.put("lastAnnualFeeTime", extendedAccountService.getLastAnnualFeeTime(address, blockNumber).toString());
+        info.put("deployedAddress", extendedAccountService.getDeployedAddress(address, blockNumber));
+        info.put("investorAddress", extendedAccountService.getInvestorAddress(address, blockNumber));
+        info.put("beneficiaryAddress", extendedAccountService.getBeneficiaryAddress(address, blockNumber));
 
         return info;
     }
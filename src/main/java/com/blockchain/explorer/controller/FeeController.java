@@ -0,0 +1,33 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.service.FeeOracleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 手续费估算API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/fees")
+public class FeeController {
+
+    @Autowired
+    private FeeOracleService feeOracleService;
+
+    /**
+     * 获取gasPrice分位数（按滑动区块窗口）及最新区块的 baseFee / powPrice / powGas
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getFeeStats() {
+        Map<String, Object> stats = feeOracleService.getFeeStats();
+        if (stats.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,149 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.AccountStateRepository;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.service.SearchIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 统一搜索API
+ * 自动识别区块号、区块哈希、交易哈希、地址，先查内存过滤器再查数据库
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Pattern BLOCK_NUMBER = Pattern.compile("\\d{1,20}");
+    private static final Pattern HASH = Pattern.compile("0x[0-9a-f]{64}");
+    private static final Pattern ADDRESS = Pattern.compile("0x[0-9a-f]{40}");
+    private static final Pattern HEX_PREFIX = Pattern.compile("0x[0-9a-f]{0,64}");
+
+    /**
+     * 哈希前缀补全的最小长度（含0x），过短的前缀会命中大量索引行
+     */
+    private static final int MIN_HASH_PREFIX_LENGTH = 8;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountStateRepository accountStateRepository;
+
+    /**
+     * 统一搜索
+     *
+     * @param q 区块号 / 区块哈希 / 交易哈希 / 地址
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(@RequestParam String q) {
+        String query = SearchIndexService.normalize(q);
+
+        if (BLOCK_NUMBER.matcher(query).matches()) {
+            BigInteger number = new BigInteger(query);
+            if (!searchIndexService.mightContainBlockNumber(number)) {
+                return ResponseEntity.notFound().build();
+            }
+            return found("block", query, blockRepository.findByBlockNumber(number));
+        }
+
+        if (HASH.matcher(query).matches()) {
+            if (searchIndexService.mightContainBlockHash(query)) {
+                Optional<Block> block = blockRepository.findByBlockHash(query);
+                if (block.isPresent()) {
+                    return found("block", query, block);
+                }
+            }
+            if (searchIndexService.mightContainTxHash(query)) {
+                return found("transaction", query, transactionRepository.findByTxHash(query));
+            }
+            return ResponseEntity.notFound().build();
+        }
+
+        if (ADDRESS.matcher(query).matches()) {
+            if (!searchIndexService.mightContainAddress(query)) {
+                return ResponseEntity.notFound().build();
+            }
+            return found("address", query, accountStateRepository.findByAddress(query));
+        }
+
+        return ResponseEntity.badRequest().body(Map.of("error", "Unrecognized search query: " + q));
+    }
+
+    /**
+     * 地址和哈希前缀补全
+     * 地址走账户表的地址唯一索引；哈希前缀足够长时走数据库唯一索引范围扫描
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<Map<String, Object>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        String normalized = SearchIndexService.normalize(prefix);
+        if (!HEX_PREFIX.matcher(normalized).matches()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Prefix must be 0x-prefixed hex"));
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, 10));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("prefix", normalized);
+        result.put("addresses", normalized.length() <= 42
+                ? searchIndexService.completeAddress(normalized, boundedLimit)
+                : Collections.emptyList());
+
+        List<String> blocks = Collections.emptyList();
+        List<String> transactions = Collections.emptyList();
+        if (normalized.length() >= MIN_HASH_PREFIX_LENGTH) {
+            blocks = blockRepository.findTop10ByBlockHashStartingWith(normalized).stream()
+                    .map(Block::getBlockHash)
+                    .limit(boundedLimit)
+                    .collect(Collectors.toList());
+            transactions = transactionRepository.findTop10ByTxHashStartingWith(normalized).stream()
+                    .map(Transaction::getTxHash)
+                    .limit(boundedLimit)
+                    .collect(Collectors.toList());
+        }
+        result.put("blocks", blocks);
+        result.put("transactions", transactions);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 内存索引状态
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(searchIndexService.getStats());
+    }
+
+    private ResponseEntity<Map<String, Object>> found(String type, String query, Optional<?> entity) {
+        if (entity.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("query", query);
+        result.put("type", type);
+        result.put("result", entity.get());
+        return ResponseEntity.ok(result);
+    }
+}
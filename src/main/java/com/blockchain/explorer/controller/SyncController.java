@@ -0,0 +1,77 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.config.ReplicaLagMonitor;
+import com.blockchain.explorer.config.RpcProxyLimitConfig;
+import com.blockchain.explorer.service.BlockSyncService;
+import com.blockchain.explorer.service.BlockWriterService;
+import com.blockchain.explorer.service.LeaderElectionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 同步状态API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private BlockSyncService blockSyncService;
+
+    @Autowired
+    private BlockWriterService blockWriterService;
+
+    @Autowired(required = false)
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private RpcProxyLimitConfig rpcProxyLimitConfig;
+
+    /**
+     * 同步流水线状态：抓取阶段和写入阶段的吞吐、忙碌比例，以及写入队列深度和占用率
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("leader", leaderElectionService.isLeader());
+        status.put("fetch", blockSyncService.getStatus());
+        status.put("writer", blockWriterService.getStatus());
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * 本实例是否为同步领导节点，以及当前租约持有者
+     */
+    @GetMapping("/leader")
+    public ResponseEntity<Map<String, Object>> getLeader() {
+        return ResponseEntity.ok(leaderElectionService.getStatus());
+    }
+
+    /**
+     * 代理RPC接口的并发限制、拒绝计数和请求合并情况（这些接口与同步共用同一个节点）
+     */
+    @GetMapping("/rpc-proxy")
+    public ResponseEntity<Map<String, Object>> getRpcProxy() {
+        return ResponseEntity.ok(rpcProxyLimitConfig.getStatus());
+    }
+
+    /**
+     * 从库延迟（未配置从库时返回404）
+     */
+    @GetMapping("/replica")
+    public ResponseEntity<Map<String, Object>> getReplica() {
+        if (replicaLagMonitor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(replicaLagMonitor.getStatus());
+    }
+}
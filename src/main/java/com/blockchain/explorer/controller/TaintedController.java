@@ -0,0 +1,86 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.entity.TaintedTransaction;
+import com.blockchain.explorer.repository.TaintedTransactionRepository;
+import com.blockchain.explorer.service.TaintRegistryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 污点交易查询API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/tainted")
+public class TaintedController {
+
+    @Autowired
+    private TaintedTransactionRepository taintedTransactionRepository;
+
+    @Autowired
+    private TaintRegistryService taintRegistryService;
+
+    /**
+     * 分页查询污点交易（按标记区块倒序）
+     */
+    @GetMapping
+    public ResponseEntity<Page<TaintedTransaction>> getTaintedTransactions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taintedTransactionRepository.findAll(
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "blockNumber"))));
+    }
+
+    /**
+     * 查询区块标记的污点交易
+     */
+    @GetMapping("/block/{blockNumber}")
+    public ResponseEntity<List<TaintedTransaction>> getByBlock(@PathVariable String blockNumber) {
+        try {
+            return ResponseEntity.ok(taintedTransactionRepository.findByBlockNumber(new BigInteger(blockNumber)));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 查询地址涉及的污点交易
+     */
+    @GetMapping("/address/{address}")
+    public ResponseEntity<Page<TaintedTransaction>> getByAddress(
+            @PathVariable String address,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(taintedTransactionRepository.findByAddress(address.toLowerCase(),
+                PageRequest.of(page, size)));
+    }
+
+    /**
+     * 检查交易或地址是否被污染
+     */
+    @GetMapping("/check/{value}")
+    public ResponseEntity<Map<String, Object>> check(@PathVariable String value) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("value", value);
+        if (value.length() == 66) {
+            result.put("type", "transaction");
+            result.put("tainted", taintRegistryService.isTainted(value));
+        } else if (value.length() == 42) {
+            result.put("type", "address");
+            result.put("tainted", taintRegistryService.isAddressTainted(value));
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "Expected a tx hash or an address"));
+        }
+        return ResponseEntity.ok(result);
+    }
+}
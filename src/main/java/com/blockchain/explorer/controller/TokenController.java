@@ -0,0 +1,122 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.entity.TokenBalance;
+import com.blockchain.explorer.entity.TokenTransfer;
+import com.blockchain.explorer.repository.TokenBalanceRepository;
+import com.blockchain.explorer.repository.TokenTransferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 代币查询API（数据来自 Transfer 事件索引）
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/tokens")
+public class TokenController {
+
+    @Autowired
+    private TokenTransferRepository tokenTransferRepository;
+
+    @Autowired
+    private TokenBalanceRepository tokenBalanceRepository;
+
+    /**
+     * 代币转账历史（游标分页）
+     */
+    @GetMapping("/{token}/transfers")
+    public ResponseEntity<Map<String, Object>> getTokenTransfers(
+            @PathVariable String token,
+            @RequestParam(required = false) BigInteger beforeBlock,
+            @RequestParam(required = false) Integer beforeLogIndex,
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = pageable(size);
+        List<TokenTransfer> transfers = tokenTransferRepository.findByTokenBefore(lower(token),
+                before(beforeBlock), beforeIndex(beforeBlock, beforeLogIndex), pageable);
+        return ResponseEntity.ok(page(transfers, pageable));
+    }
+
+    /**
+     * 代币持有者排行
+     */
+    @GetMapping("/{token}/holders")
+    public ResponseEntity<List<TokenBalance>> getTokenHolders(
+            @PathVariable String token,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(tokenBalanceRepository.findByTokenAndBalanceGreaterThanOrderByBalanceDesc(
+                lower(token), BigInteger.ZERO, PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500))));
+    }
+
+    /**
+     * 地址持有的所有代币余额
+     */
+    @GetMapping("/holder/{address}")
+    public ResponseEntity<List<TokenBalance>> getHolderBalances(@PathVariable String address) {
+        return ResponseEntity.ok(tokenBalanceRepository.findByHolderAndBalanceGreaterThanOrderByTokenAsc(
+                lower(address), BigInteger.ZERO));
+    }
+
+    /**
+     * 地址的代币转账历史（游标分页）
+     *
+     * @param direction out（转出）/ in（转入）
+     */
+    @GetMapping("/holder/{address}/transfers")
+    public ResponseEntity<Map<String, Object>> getHolderTransfers(
+            @PathVariable String address,
+            @RequestParam(defaultValue = "out") String direction,
+            @RequestParam(required = false) BigInteger beforeBlock,
+            @RequestParam(required = false) Integer beforeLogIndex,
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = pageable(size);
+        List<TokenTransfer> transfers;
+        if ("out".equals(direction)) {
+            transfers = tokenTransferRepository.findByFromAddressBefore(lower(address), before(beforeBlock),
+                    beforeIndex(beforeBlock, beforeLogIndex), pageable);
+        } else if ("in".equals(direction)) {
+            transfers = tokenTransferRepository.findByToAddressBefore(lower(address), before(beforeBlock),
+                    beforeIndex(beforeBlock, beforeLogIndex), pageable);
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "direction must be in or out"));
+        }
+        return ResponseEntity.ok(page(transfers, pageable));
+    }
+
+    private static Map<String, Object> page(List<TokenTransfer> transfers, Pageable pageable) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("transfers", transfers);
+        if (transfers.size() == pageable.getPageSize()) {
+            TokenTransfer last = transfers.get(transfers.size() - 1);
+            result.put("nextBeforeBlock", last.getBlockNumber());
+            result.put("nextBeforeLogIndex", last.getLogIndex());
+        }
+        return result;
+    }
+
+    private static Pageable pageable(int size) {
+        return PageRequest.of(0, Math.min(Math.max(size, 1), 500));
+    }
+
+    private static BigInteger before(BigInteger beforeBlock) {
+        return beforeBlock != null ? beforeBlock : BigInteger.valueOf(Long.MAX_VALUE);
+    }
+
+    private static int beforeIndex(BigInteger beforeBlock, Integer beforeLogIndex) {
+        return beforeBlock != null && beforeLogIndex != null ? beforeLogIndex : Integer.MAX_VALUE;
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
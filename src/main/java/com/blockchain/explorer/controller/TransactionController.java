@@ -1,17 +1,28 @@
 package com.blockchain.explorer.controller;
 
+import com.blockchain.explorer.config.ReadRouting;
 import com.blockchain.explorer.entity.Transaction;
 import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.service.PendingTransactionService;
+import com.blockchain.explorer.service.RenderedBlockStore;
+import com.blockchain.explorer.service.SearchIndexService;
+import com.blockchain.explorer.service.TaintRegistryService;
+import com.blockchain.explorer.service.TxTypeStatsService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 交易查询API
@@ -24,25 +35,76 @@ public class TransactionController {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TaintRegistryService taintRegistryService;
+
+    @Autowired
+    private TxTypeStatsService txTypeStatsService;
+
+    @Autowired
+    private PendingTransactionService pendingTransactionService;
+
+    @Autowired
+    private ReadRouting readRouting;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RenderedBlockStore renderedBlockStore;
+
     /**
-     * 按交易哈希查询
+     * 按交易哈希查询（附带污点标记），尚未入库时从交易池兜底（pending=true）
+     * 搜索索引的过滤器判定不存在时不查询数据库
      */
     @GetMapping("/{txHash}")
     public ResponseEntity<Transaction> getTransactionByHash(@PathVariable String txHash) {
-        return transactionRepository.findByTxHash(txHash)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        if (!searchIndexService.mightContainTxHash(txHash)) {
+            Transaction pending = pendingTransactionService.get(txHash);
+            return pending != null ? ResponseEntity.ok(pending) : ResponseEntity.notFound().build();
+        }
+        return readRouting.findWithFallback(() -> transactionRepository.findByTxHash(txHash))
+                .map(transaction -> {
+                    transaction.setTainted(taintRegistryService.isTainted(transaction.getTxHash()));
+                    return ResponseEntity.ok(transaction);
+                })
+                .orElseGet(() -> {
+                    Transaction pending = pendingTransactionService.get(txHash);
+                    return pending != null ? ResponseEntity.ok(pending) : ResponseEntity.notFound().build();
+                });
+    }
+
+    /**
+     * 最近发现的待打包交易
+     */
+    @GetMapping("/pending")
+    public ResponseEntity<Map<String, Object>> getPendingTransactions(
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("poolSize", pendingTransactionService.size());
+        result.put("transactions", pendingTransactionService.getRecent(Math.min(Math.max(limit, 1), 100)));
+        return ResponseEntity.ok(result);
     }
 
     /**
      * 查询区块的所有交易
+     * 已确认的区块直接返回预渲染的响应体（启用 blockchain.rendered.enabled 时）
      */
     @GetMapping("/block/{blockNumber}")
-    public ResponseEntity<List<Transaction>> getTransactionsByBlock(@PathVariable String blockNumber) {
+    public ResponseEntity<?> getTransactionsByBlock(@PathVariable String blockNumber,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
             BigInteger number = new BigInteger(blockNumber);
-            List<Transaction> transactions = transactionRepository.findByBlockNumberOrderByTransactionIndexAsc(number);
-            return ResponseEntity.ok(transactions);
+            byte[] rendered = renderedBlockStore.getTransactions(number);
+            if (rendered != null) {
+                return RenderedBlockStore.toResponse(rendered, acceptEncoding);
+            }
+            List<Transaction> transactions = readRouting.forBlock(number,
+                    () -> transactionRepository.findByBlockNumberOrderByTransactionIndexAsc(number));
+            // 标记污点，区块已确认时渲染保存
+            rendered = renderedBlockStore.putTransactions(number, transactions);
+            return rendered != null ? RenderedBlockStore.toResponse(rendered, acceptEncoding)
+                    : ResponseEntity.ok(transactions);
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -74,4 +136,66 @@ public class TransactionController {
         Page<Transaction> transactions = transactionRepository.findAll(pageable);
         return ResponseEntity.ok(transactions);
     }
+
+    /**
+     * 各交易类型累计数量（内存计数器）
+     */
+    @GetMapping("/types")
+    public ResponseEntity<Map<String, Long>> getTypeCounts() {
+        return ResponseEntity.ok(txTypeStatsService.getCounts());
+    }
+
+    /**
+     * 按天的交易类型构成（读取日汇总表）
+     *
+     * @param from 起始日期（yyyy-MM-dd），默认30天前
+     * @param to   结束日期（yyyy-MM-dd），默认今天
+     */
+    @GetMapping("/types/daily")
+    public ResponseEntity<Map<LocalDate, Map<String, Long>>> getDailyTypeMix(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            LocalDate toDay = to == null ? LocalDate.now() : LocalDate.parse(to);
+            LocalDate fromDay = from == null ? toDay.minusDays(30) : LocalDate.parse(from);
+            return ResponseEntity.ok(txTypeStatsService.getDailyMix(fromDay, toDay));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 按交易类型查询最新交易（游标分页）
+     *
+     * @param type        类型名称或数值，如 Pow / 4 / 0x4
+     * @param beforeBlock 上一页最后一条的区块号（首页不传）
+     * @param beforeIndex 上一页最后一条的交易索引
+     */
+    @GetMapping("/type/{type}")
+    public ResponseEntity<Map<String, Object>> getTransactionsByType(
+            @PathVariable String type,
+            @RequestParam(required = false) BigInteger beforeBlock,
+            @RequestParam(required = false) Integer beforeIndex,
+            @RequestParam(defaultValue = "20") int size) {
+        Integer txType = TxTypeStatsService.parseType(type);
+        if (txType == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown transaction type: " + type));
+        }
+
+        Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), 100));
+        List<Transaction> transactions = beforeBlock == null
+                ? transactionRepository.findByTxTypeOrderByBlockNumberDescTransactionIndexDesc(txType, pageable)
+                : transactionRepository.findByTxTypeBefore(txType, beforeBlock,
+                        beforeIndex == null ? Integer.MAX_VALUE : beforeIndex, pageable);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("type", TxTypeStatsService.TYPE_NAMES[txType]);
+        result.put("transactions", transactions);
+        if (transactions.size() == pageable.getPageSize()) {
+            Transaction last = transactions.get(transactions.size() - 1);
+            result.put("nextBeforeBlock", last.getBlockNumber());
+            result.put("nextBeforeIndex", last.getTransactionIndex());
+        }
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,82 @@
+package com.blockchain.explorer.controller;
+
+import com.blockchain.explorer.service.ValidatorStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PoS验证者统计API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/validators")
+public class ValidatorController {
+
+    private static final Set<String> SORT_FIELDS = Set.of("blocksLed", "votesCast");
+
+    @Autowired
+    private ValidatorStatsService validatorStatsService;
+
+    /**
+     * 验证者列表（读取增量维护的计数器）
+     *
+     * @param sortBy blocksLed / votesCast
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getValidators(
+            @RequestParam(defaultValue = "blocksLed") String sortBy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!SORT_FIELDS.contains(sortBy)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown sort field: " + sortBy));
+        }
+        List<Map<String, Object>> validators = validatorStatsService.getValidators(sortBy, Math.max(page, 0),
+                Math.min(Math.max(size, 1), 100));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("sortBy", sortBy);
+        result.put("page", page);
+        result.put("validators", validators);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 单个验证者统计
+     *
+     * @param window 大于0时附带最近 window 个区块内的领导/投票次数
+     */
+    @GetMapping("/{address}")
+    public ResponseEntity<Map<String, Object>> getValidator(
+            @PathVariable String address,
+            @RequestParam(defaultValue = "0") long window) {
+        Map<String, Object> stats = validatorStatsService.getValidator(address, window);
+        if (stats == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 区块的投票者列表
+     */
+    @GetMapping("/votes/{blockNumber}")
+    public ResponseEntity<Map<String, Object>> getVotes(@PathVariable String blockNumber) {
+        try {
+            BigInteger number = new BigInteger(blockNumber);
+            Map<String, Object> result = new HashMap<>();
+            result.put("blockNumber", number);
+            result.put("voters", validatorStatsService.getVoters(number));
+            return ResponseEntity.ok(result);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.blockchain.explorer.dto;
 
+import com.blockchain.explorer.util.HexQuantity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
@@ -189,25 +190,13 @@ public class ExtendedBlockData {
      * 转换为BigInteger（处理null和空值）
      */
     public static BigInteger toBigInteger(String value) {
-        if (value == null || value.isEmpty() || value.equals("0x")) {
-            return BigInteger.ZERO;
-        }
-        if (value.startsWith("0x") || value.startsWith("0X")) {
-            return new BigInteger(value.substring(2), 16);
-        }
-        return new BigInteger(value);
+        return HexQuantity.toBigInteger(value);
     }
 
     /**
      * 转换为Long（处理null和空值）
      */
     public static Long toLong(String value) {
-        if (value == null || value.isEmpty() || value.equals("0x")) {
-            return 0L;
-        }
-        if (value.startsWith("0x") || value.startsWith("0X")) {
-            return Long.parseLong(value.substring(2), 16);
-        }
-        return Long.parseLong(value);
+        return HexQuantity.toLong(value);
     }
 }
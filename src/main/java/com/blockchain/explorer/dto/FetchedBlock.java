@@ -0,0 +1,37 @@
+package com.blockchain.explorer.dto;
+
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.ContractCode;
+import com.blockchain.explorer.entity.Transaction;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 抓取阶段的产出：一个区块及其交易、涉及账户的链上状态，交给写入阶段入库
+ */
+@Data
+public class FetchedBlock {
+
+    private Block block;
+
+    private List<Transaction> transactions;
+
+    /**
+     * 涉及账户的最新状态（只填充了 address、balance、securityLevel、pledgeAmount、totalValueTx，
+     * 本次识别了账户类型的还填充 isContract、codeHash）
+     */
+    private List<AccountState> accounts;
+
+    /**
+     * 本区块合约创建交易生成的合约地址
+     */
+    private Set<String> createdContracts;
+
+    /**
+     * 本区块首次见到的合约字节码
+     */
+    private List<ContractCode> contractCodes;
+}
@@ -0,0 +1,47 @@
+package com.blockchain.explorer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.web3j.protocol.core.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RPC响应：txpool_content
+ * 结构为 {pending|queued: {发送方地址: {nonce: 交易}}}
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TxpoolContent extends Response<Map<String, Map<String, Map<String, Map<String, Object>>>>> {
+
+    /**
+     * 展开 pending 部分的所有交易
+     */
+    public List<Map<String, Object>> getPendingTransactions() {
+        return flatten("pending");
+    }
+
+    /**
+     * 展开 queued 部分的所有交易（nonce 不连续，暂时无法打包）
+     */
+    public List<Map<String, Object>> getQueuedTransactions() {
+        return flatten("queued");
+    }
+
+    private List<Map<String, Object>> flatten(String section) {
+        Map<String, Map<String, Map<String, Map<String, Object>>>> result = getResult();
+        if (result == null || result.get(section) == null) {
+            return Collections.emptyList();
+        }
+        List<Map<String, Object>> transactions = new ArrayList<>();
+        for (Map<String, Map<String, Object>> byNonce : result.get(section).values()) {
+            transactions.addAll(byNonce.values());
+        }
+        return transactions;
+    }
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "account_states", indexes = {
         @Index(name = "idx_address", columnList = "address", unique = true),
         @Index(name = "idx_last_updated", columnList = "lastUpdated"),
-        @Index(name = "idx_is_contract", columnList = "isContract")
+        @Index(name = "idx_is_contract", columnList = "isContract"),
+        @Index(name = "idx_account_code_hash", columnList = "codeHash")
 })
 public class AccountState {
 
@@ -167,6 +168,12 @@ public class AccountState {
      */
     private Boolean isContract;
 
+    /**
+     * 合约代码哈希（关联 contract_codes，EOA为空）
+     */
+    @Column(length = 66)
+    private String codeHash;
+
     /**
      * 最后更新时间
      */
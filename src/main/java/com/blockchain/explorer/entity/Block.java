@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "blocks", indexes = {
         @Index(name = "idx_block_number", columnList = "blockNumber", unique = true),
         @Index(name = "idx_block_hash", columnList = "blockHash", unique = true),
-        @Index(name = "idx_timestamp", columnList = "timestamp")
+        @Index(name = "idx_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_pos_leader_block", columnList = "posLeader,blockNumber")
 })
 public class Block {
 
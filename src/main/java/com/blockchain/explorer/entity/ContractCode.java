@@ -0,0 +1,56 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * 合约字节码实体（按代码哈希去重，克隆合约共用一行）
+ */
+@Data
+@Entity
+@Table(name = "contract_codes", indexes = {
+        @Index(name = "idx_contract_code_hash", columnList = "codeHash", unique = true)
+})
+public class ContractCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * keccak256(字节码)
+     */
+    @Column(nullable = false, unique = true, length = 66)
+    private String codeHash;
+
+    /**
+     * 运行时字节码
+     */
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String bytecode;
+
+    /**
+     * 字节码长度（字节）
+     */
+    @Column(nullable = false)
+    private Integer codeSize;
+
+    /**
+     * 首次发现的区块号
+     */
+    private BigInteger firstSeenBlock;
+
+    /**
+     * 创建时间
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,74 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+
+/**
+ * 事件日志实体（eth_getLogs）
+ */
+@Data
+@Entity
+@Table(name = "event_logs", indexes = {
+        @Index(name = "idx_log_block_index", columnList = "blockNumber,logIndex", unique = true),
+        @Index(name = "idx_log_address_topic0_block", columnList = "address,topic0,blockNumber,logIndex"),
+        @Index(name = "idx_log_address_block", columnList = "address,blockNumber,logIndex"),
+        @Index(name = "idx_log_topic0_block", columnList = "topic0,blockNumber,logIndex"),
+        @Index(name = "idx_log_tx_hash", columnList = "txHash")
+})
+public class EventLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 区块号
+     */
+    @Column(nullable = false)
+    private BigInteger blockNumber;
+
+    /**
+     * 日志在区块中的索引
+     */
+    @Column(nullable = false)
+    private Integer logIndex;
+
+    /**
+     * 交易哈希
+     */
+    @Column(nullable = false, length = 66)
+    private String txHash;
+
+    /**
+     * 交易在区块中的索引
+     */
+    private Integer transactionIndex;
+
+    /**
+     * 合约地址，小写
+     */
+    @Column(nullable = false, length = 42)
+    private String address;
+
+    /**
+     * 事件签名哈希及索引参数，小写
+     */
+    @Column(length = 66)
+    private String topic0;
+
+    @Column(length = 66)
+    private String topic1;
+
+    @Column(length = 66)
+    private String topic2;
+
+    @Column(length = 66)
+    private String topic3;
+
+    /**
+     * 非索引参数
+     */
+    @Column(columnDefinition = "TEXT")
+    private String data;
+}
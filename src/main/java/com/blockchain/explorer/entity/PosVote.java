@@ -0,0 +1,39 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+
+/**
+ * PoS投票实体（由区块 posVoting 字段解析，每个投票者一行）
+ */
+@Data
+@Entity
+@Table(name = "pos_votes", indexes = {
+        @Index(name = "idx_pos_vote_block_validator", columnList = "blockNumber,validator", unique = true),
+        @Index(name = "idx_pos_vote_validator_block", columnList = "validator,blockNumber")
+})
+public class PosVote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 区块号
+     */
+    @Column(nullable = false)
+    private BigInteger blockNumber;
+
+    /**
+     * 投票者（验证者）地址，小写
+     */
+    @Column(nullable = false, length = 42)
+    private String validator;
+
+    /**
+     * 在 posVoting 中的顺序
+     */
+    @Column(nullable = false)
+    private Integer voteIndex;
+}
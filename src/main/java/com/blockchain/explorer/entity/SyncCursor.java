@@ -0,0 +1,33 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * 同步游标实体，记录各个独立同步阶段（如事件日志）已处理到的区块号
+ */
+@Data
+@Entity
+@Table(name = "sync_cursors")
+public class SyncCursor {
+
+    /**
+     * 阶段名称
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * 已处理的最高区块号
+     */
+    @Column(nullable = false)
+    private BigInteger blockNumber;
+
+    /**
+     * 最后更新时间
+     */
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,38 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 同步租约实体，持有未过期租约的节点是唯一写入链上数据的领导节点
+ */
+@Data
+@Entity
+@Table(name = "sync_leases")
+public class SyncLease {
+
+    /**
+     * 租约名称
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * 持有者实例ID
+     */
+    @Column(length = 128)
+    private String owner;
+
+    /**
+     * 租约到期时间，到期未续约则其他节点可接管
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 最近一次获取或续约的时间
+     */
+    private LocalDateTime renewedAt;
+}
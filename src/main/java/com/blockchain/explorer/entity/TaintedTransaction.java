@@ -0,0 +1,59 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * 污点交易实体（由区块 tainted 字段解析）
+ */
+@Data
+@Entity
+@Table(name = "tainted_transactions", indexes = {
+        @Index(name = "idx_tainted_tx_hash", columnList = "txHash", unique = true),
+        @Index(name = "idx_tainted_block_number", columnList = "blockNumber"),
+        @Index(name = "idx_tainted_from_address", columnList = "fromAddress"),
+        @Index(name = "idx_tainted_to_address", columnList = "toAddress")
+})
+public class TaintedTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 交易哈希
+     */
+    @Column(nullable = false, unique = true, length = 66)
+    private String txHash;
+
+    /**
+     * 标记该交易的区块号
+     */
+    @Column(nullable = false)
+    private BigInteger blockNumber;
+
+    /**
+     * 发送方地址（交易未入库时为空）
+     */
+    @Column(length = 42)
+    private String fromAddress;
+
+    /**
+     * 接收方地址
+     */
+    @Column(length = 42)
+    private String toAddress;
+
+    /**
+     * 创建时间
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+
+/**
+ * 持有者代币余额（按 Transfer 事件增量累计，ERC-721 为持有数量）
+ */
+@Data
+@Entity
+@Table(name = "token_balances", indexes = {
+        @Index(name = "idx_token_balance_holder_token", columnList = "holder,token", unique = true),
+        @Index(name = "idx_token_balance_token_balance", columnList = "token,balance")
+})
+public class TokenBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 持有者地址，小写
+     */
+    @Column(nullable = false, length = 42)
+    private String holder;
+
+    /**
+     * 代币合约地址，小写
+     */
+    @Column(nullable = false, length = 42)
+    private String token;
+
+    /**
+     * 余额（从本地已索引的转账累计；索引起点之前的转账不计入）
+     */
+    @Column(nullable = false, precision = 65, scale = 0)
+    private BigInteger balance;
+
+    /**
+     * 最后变动的区块号
+     */
+    private BigInteger lastBlock;
+}
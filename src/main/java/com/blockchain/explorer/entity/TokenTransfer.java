@@ -0,0 +1,81 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+
+/**
+ * 代币转账实体（由 ERC-20 / ERC-721 Transfer 事件解析）
+ */
+@Data
+@Entity
+@Table(name = "token_transfers", indexes = {
+        @Index(name = "idx_token_transfer_block_log", columnList = "blockNumber,logIndex", unique = true),
+        @Index(name = "idx_token_transfer_token_block", columnList = "token,blockNumber,logIndex"),
+        @Index(name = "idx_token_transfer_from_block", columnList = "fromAddress,blockNumber,logIndex"),
+        @Index(name = "idx_token_transfer_to_block", columnList = "toAddress,blockNumber,logIndex"),
+        @Index(name = "idx_token_transfer_tx_hash", columnList = "txHash")
+})
+public class TokenTransfer {
+
+    public static final String ERC20 = "ERC20";
+    public static final String ERC721 = "ERC721";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 区块号
+     */
+    @Column(nullable = false)
+    private BigInteger blockNumber;
+
+    /**
+     * 日志在区块中的索引
+     */
+    @Column(nullable = false)
+    private Integer logIndex;
+
+    /**
+     * 交易哈希
+     */
+    @Column(nullable = false, length = 66)
+    private String txHash;
+
+    /**
+     * 代币合约地址，小写
+     */
+    @Column(nullable = false, length = 42)
+    private String token;
+
+    /**
+     * 标准：ERC20 / ERC721
+     */
+    @Column(nullable = false, length = 8)
+    private String standard;
+
+    /**
+     * 发送方（铸造时为零地址）
+     */
+    @Column(nullable = false, length = 42)
+    private String fromAddress;
+
+    /**
+     * 接收方（销毁时为零地址）
+     */
+    @Column(nullable = false, length = 42)
+    private String toAddress;
+
+    /**
+     * 转账数量（ERC-721 为1）
+     */
+    @Column(nullable = false, precision = 65, scale = 0)
+    private BigInteger value;
+
+    /**
+     * NFT编号（仅 ERC-721）
+     */
+    @Column(precision = 65, scale = 0)
+    private BigInteger tokenId;
+}
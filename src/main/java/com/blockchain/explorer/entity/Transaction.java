@@ -13,8 +13,10 @@ import java.time.LocalDateTime;
 @Table(name = "transactions", indexes = {
         @Index(name = "idx_tx_hash", columnList = "txHash", unique = true),
         @Index(name = "idx_block_number", columnList = "blockNumber"),
+        @Index(name = "idx_block_tx_index", columnList = "blockNumber,transactionIndex"),
         @Index(name = "idx_from_address", columnList = "fromAddress"),
         @Index(name = "idx_to_address", columnList = "toAddress"),
+        @Index(name = "idx_tx_type_block", columnList = "txType,blockNumber,transactionIndex"),
         @Index(name = "idx_timestamp", columnList = "timestamp")
 })
 public class Transaction {
@@ -100,6 +102,7 @@ public class Transaction {
      * 0x00=Legacy, 0x01=AccessList, 0x02=DynamicFee, 0x03=Blob,
      * 0x04=Pow, 0x05=DynamicCrypto, 0x06=Deposit, 0x07=Nested
      */
+    @Column(columnDefinition = "TINYINT")
     private Integer txType;
 
     /**
@@ -114,6 +117,18 @@ public class Transaction {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 是否被标记为污点交易（查询时由 TaintRegistryService 填充，不入库）
+     */
+    @Transient
+    private Boolean tainted;
+
+    /**
+     * 是否为尚未打包的交易（来自交易池，不入库）
+     */
+    @Transient
+    private Boolean pending;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,38 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 按天、按交易类型汇总的交易数（同步时增量更新）
+ */
+@Data
+@Entity
+@Table(name = "tx_type_daily_stats", indexes = {
+        @Index(name = "idx_tx_type_daily_day_type", columnList = "day,txType", unique = true)
+})
+public class TxTypeDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 日期（按区块时间戳）
+     */
+    @Column(nullable = false)
+    private LocalDate day;
+
+    /**
+     * 交易类型，-1 表示未知类型
+     */
+    @Column(nullable = false, columnDefinition = "TINYINT")
+    private Integer txType;
+
+    /**
+     * 交易数
+     */
+    @Column(nullable = false)
+    private Long txCount = 0L;
+}
@@ -0,0 +1,62 @@
+package com.blockchain.explorer.entity;
+
+import lombok.Data;
+import javax.persistence.*;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * 验证者统计实体（同步时增量更新）
+ */
+@Data
+@Entity
+@Table(name = "validator_stats", indexes = {
+        @Index(name = "idx_validator_address", columnList = "address", unique = true),
+        @Index(name = "idx_validator_blocks_led", columnList = "blocksLed"),
+        @Index(name = "idx_validator_votes_cast", columnList = "votesCast")
+})
+public class ValidatorStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 验证者地址，小写
+     */
+    @Column(nullable = false, unique = true, length = 42)
+    private String address;
+
+    /**
+     * 作为 posLeader 的区块数
+     */
+    @Column(nullable = false)
+    private Long blocksLed = 0L;
+
+    /**
+     * 出现在 posVoting 中的区块数
+     */
+    @Column(nullable = false)
+    private Long votesCast = 0L;
+
+    /**
+     * 首次出现（领导或投票）的区块号，参与率以此为起点
+     */
+    @Column(nullable = false)
+    private BigInteger firstSeenBlock;
+
+    /**
+     * 最近一次领导的区块号
+     */
+    private BigInteger lastLedBlock;
+
+    /**
+     * 最近一次投票的区块号
+     */
+    private BigInteger lastVotedBlock;
+
+    /**
+     * 最后更新时间
+     */
+    private LocalDateTime lastUpdated;
+}
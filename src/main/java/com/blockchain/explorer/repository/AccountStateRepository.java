@@ -1,9 +1,14 @@
 package com.blockchain.explorer.repository;
 
 import com.blockchain.explorer.entity.AccountState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,4 +26,38 @@ public interface AccountStateRepository extends JpaRepository<AccountState, Long
      * 检查地址是否存在
      */
     boolean existsByAddress(String address);
+
+    /**
+     * 按分页参数中的排序取前N个账户（不执行count查询，用于重建排行榜）
+     */
+    @Query("SELECT a FROM AccountState a")
+    List<AccountState> findTopAccounts(Pageable pageable);
+
+    /**
+     * 地址前缀补全（走地址唯一索引的范围扫描）
+     */
+    List<AccountState> findTop10ByAddressStartingWithOrderByAddressAsc(String prefix);
+
+    /**
+     * 按主键游标扫描 (id, 地址)，用于重建内存索引
+     */
+    @Query("SELECT a.id, a.address FROM AccountState a WHERE a.id > :afterId ORDER BY a.id")
+    List<Object[]> findAddressesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 所有合约地址，用于启动时加载合约缓存
+     */
+    @Query("SELECT a.address FROM AccountState a WHERE a.isContract = true")
+    List<String> findContractAddresses();
+
+    /**
+     * 使用同一份字节码的合约数
+     */
+    long countByCodeHash(String codeHash);
+
+    /**
+     * 已识别过账户类型的地址（批量，抓取阶段每个区块一次查询）
+     */
+    @Query("SELECT a.address FROM AccountState a WHERE a.address IN :addresses AND a.isContract IS NOT NULL")
+    List<String> findClassifiedAddresses(@Param("addresses") Collection<String> addresses);
 }
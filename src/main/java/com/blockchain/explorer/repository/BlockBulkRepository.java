@@ -0,0 +1,494 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.ContractCode;
+import com.blockchain.explorer.entity.EventLog;
+import com.blockchain.explorer.entity.PosVote;
+import com.blockchain.explorer.entity.TokenBalance;
+import com.blockchain.explorer.entity.TokenTransfer;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.entity.ValidatorStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 区块/交易/事件日志批量写入（JDBC批处理）
+ * 用于离线重建、日志抓取、同步写入等需要绕过JPA逐条保存的场景
+ * <p>
+ * 同步写入使用幂等语句（INSERT IGNORE / ON DUPLICATE KEY UPDATE），按唯一键去重，不需要先查询是否存在，
+ * 重启或重叠重试时重复写入同一区块不会报错也不会产生重复行。内嵌 H2 需以 MODE=MySQL 运行（压测即如此），支持相同语法。
+ */
+@Repository
+public class BlockBulkRepository {
+
+    public static final String BLOCKS = "blocks";
+    public static final String TRANSACTIONS = "transactions";
+    public static final String EVENT_LOGS = "event_logs";
+    public static final String TOKEN_TRANSFERS = "token_transfers";
+    public static final String TOKEN_BALANCES = "token_balances";
+    public static final String ACCOUNT_STATES = "account_states";
+    public static final String CONTRACT_CODES = "contract_codes";
+    public static final String POS_VOTES = "pos_votes";
+    public static final String VALIDATOR_STATS = "validator_stats";
+
+    /**
+     * 重建时写入的影子表后缀
+     */
+    public static final String SHADOW_SUFFIX = "_reindex";
+
+    /**
+     * 切换后保留的旧表后缀（用于回滚）
+     */
+    public static final String OLD_SUFFIX = "_old";
+
+    private static final String BLOCK_COLUMNS = "block_number, block_hash, parent_hash, timestamp, miner,"
+            + " gas_used, gas_limit, difficulty, nonce, transaction_count, random_number, random_root,"
+            + " pow_difficulty, pow_gas, pow_price, pos_leader, pos_voting, commit_tx_length, tainted,"
+            + " incentive, base_fee, created_at";
+
+    private static final String TRANSACTION_COLUMNS = "tx_hash, block_number, block_hash, transaction_index,"
+            + " from_address, to_address, value, gas_price, gas, gas_used, input, nonce, status, tx_type,"
+            + " timestamp, created_at";
+
+    private static final String EVENT_LOG_COLUMNS = "block_number, log_index, tx_hash, transaction_index, address,"
+            + " topic0, topic1, topic2, topic3, data";
+
+    private static final String TOKEN_TRANSFER_COLUMNS = "block_number, log_index, tx_hash, token, standard,"
+            + " from_address, to_address, value, token_id";
+
+    private static final String ACCOUNT_STATE_COLUMNS = "address, balance, security_level, pledge_amount,"
+            + " total_value_tx, is_contract, code_hash, last_updated, created_at";
+
+    private static final String VALIDATOR_STATS_COLUMNS = "address, blocks_led, votes_cast, first_seen_block,"
+            + " last_led_block, last_voted_block, last_updated";
+
+    private static final String CONTRACT_CODE_COLUMNS = "code_hash, bytecode, code_size, first_seen_block, created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入区块
+     */
+    public void insertBlocks(String table, List<Block> blocks) {
+        String sql = "INSERT INTO " + table + " (" + BLOCK_COLUMNS + ") VALUES (" + placeholders(22) + ")";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setBlockValues(ps, blocks.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return blocks.size();
+            }
+        });
+    }
+
+    /**
+     * 批量插入交易
+     */
+    public void insertTransactions(String table, List<Transaction> transactions) {
+        String sql = "INSERT INTO " + table + " (" + TRANSACTION_COLUMNS + ") VALUES (" + placeholders(16) + ")";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setTransactionValues(ps, transactions.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return transactions.size();
+            }
+        });
+    }
+
+    /**
+     * 插入区块，区块号已存在时忽略
+     *
+     * @return 是否新插入（false表示其他写入者已写入该区块）
+     */
+    public boolean insertBlockIfAbsent(Block block) {
+        String sql = "INSERT IGNORE INTO " + BLOCKS + " (" + BLOCK_COLUMNS + ") VALUES (" + placeholders(22) + ")";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(sql, ps -> setBlockValues(ps, block, now)) == 1;
+    }
+
+    /**
+     * 批量插入交易，交易哈希已存在的忽略
+     */
+    public void insertTransactionsIfAbsent(List<Transaction> transactions) {
+        String sql = "INSERT IGNORE INTO " + TRANSACTIONS + " (" + TRANSACTION_COLUMNS + ") VALUES ("
+                + placeholders(16) + ")";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setTransactionValues(ps, transactions.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return transactions.size();
+            }
+        });
+    }
+
+    /**
+     * 批量写入账户状态：不存在的地址新建，已存在的覆盖链上字段，
+     * 账户类型（is_contract / code_hash）为空时保留原值（本次未识别）
+     */
+    public void upsertAccountStates(List<AccountState> accounts) {
+        String sql = "INSERT INTO " + ACCOUNT_STATES + " (" + ACCOUNT_STATE_COLUMNS + ") VALUES ("
+                + placeholders(9) + ")"
+                + " ON DUPLICATE KEY UPDATE balance = VALUES(balance), security_level = VALUES(security_level),"
+                + " pledge_amount = VALUES(pledge_amount), total_value_tx = VALUES(total_value_tx),"
+                + " is_contract = COALESCE(VALUES(is_contract), is_contract),"
+                + " code_hash = COALESCE(VALUES(code_hash), code_hash), last_updated = VALUES(last_updated)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AccountState account = accounts.get(i);
+                int index = 1;
+                ps.setString(index++, account.getAddress());
+                setDecimal(ps, index++, account.getBalance());
+                setDecimal(ps, index++, account.getSecurityLevel());
+                setDecimal(ps, index++, account.getPledgeAmount());
+                setDecimal(ps, index++, account.getTotalValueTx());
+                if (account.getIsContract() == null) {
+                    ps.setNull(index++, Types.BOOLEAN);
+                } else {
+                    ps.setBoolean(index++, account.getIsContract());
+                }
+                ps.setString(index++, account.getCodeHash());
+                ps.setTimestamp(index++, account.getLastUpdated() != null
+                        ? Timestamp.valueOf(account.getLastUpdated()) : now);
+                ps.setTimestamp(index, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return accounts.size();
+            }
+        });
+    }
+
+    /**
+     * 批量插入合约字节码，代码哈希已存在的忽略
+     */
+    public void insertContractCodesIfAbsent(List<ContractCode> codes) {
+        String sql = "INSERT IGNORE INTO " + CONTRACT_CODES + " (" + CONTRACT_CODE_COLUMNS + ") VALUES ("
+                + placeholders(5) + ")";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ContractCode code = codes.get(i);
+                ps.setString(1, code.getCodeHash());
+                ps.setString(2, code.getBytecode());
+                setInteger(ps, 3, code.getCodeSize());
+                setDecimal(ps, 4, code.getFirstSeenBlock());
+                ps.setTimestamp(5, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return codes.size();
+            }
+        });
+    }
+
+    /**
+     * 批量插入事件日志
+     */
+    public void insertEventLogs(List<EventLog> logs) {
+        String sql = "INSERT INTO " + EVENT_LOGS + " (" + EVENT_LOG_COLUMNS + ") VALUES (" + placeholders(10) + ")";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setEventLogValues(ps, logs.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+
+    /**
+     * 删除区块范围内的事件日志（重新抓取同一范围前调用，保证幂等）
+     */
+    public int deleteEventLogs(BigInteger fromBlock, BigInteger toBlock) {
+        return jdbcTemplate.update("DELETE FROM " + EVENT_LOGS + " WHERE block_number BETWEEN ? AND ?",
+                new BigDecimal(fromBlock), new BigDecimal(toBlock));
+    }
+
+    /**
+     * 批量插入代币转账
+     */
+    public void insertTokenTransfers(List<TokenTransfer> transfers) {
+        String sql = "INSERT INTO " + TOKEN_TRANSFERS + " (" + TOKEN_TRANSFER_COLUMNS + ") VALUES ("
+                + placeholders(9) + ")";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TokenTransfer transfer = transfers.get(i);
+                int index = 1;
+                setDecimal(ps, index++, transfer.getBlockNumber());
+                setInteger(ps, index++, transfer.getLogIndex());
+                ps.setString(index++, transfer.getTxHash());
+                ps.setString(index++, transfer.getToken());
+                ps.setString(index++, transfer.getStandard());
+                ps.setString(index++, transfer.getFromAddress());
+                ps.setString(index++, transfer.getToAddress());
+                setDecimal(ps, index++, transfer.getValue());
+                setDecimal(ps, index, transfer.getTokenId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return transfers.size();
+            }
+        });
+    }
+
+    /**
+     * 删除区块范围内的代币转账
+     */
+    public int deleteTokenTransfers(BigInteger fromBlock, BigInteger toBlock) {
+        return jdbcTemplate.update("DELETE FROM " + TOKEN_TRANSFERS + " WHERE block_number BETWEEN ? AND ?",
+                new BigDecimal(fromBlock), new BigDecimal(toBlock));
+    }
+
+    /**
+     * 批量插入PoS投票，(区块号, 验证者) 已存在的忽略
+     */
+    public void insertPosVotesIfAbsent(List<PosVote> votes) {
+        String sql = "INSERT IGNORE INTO " + POS_VOTES + " (block_number, validator, vote_index) VALUES (?, ?, ?)";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PosVote vote = votes.get(i);
+                setDecimal(ps, 1, vote.getBlockNumber());
+                ps.setString(2, vote.getValidator());
+                setInteger(ps, 3, vote.getVoteIndex());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return votes.size();
+            }
+        });
+    }
+
+    /**
+     * 批量累加验证者统计：blocksLed / votesCast 为本区块的增量，不存在的地址新建（首次出现区块取本区块），
+     * 最近领导/投票区块号为空时保留原值
+     */
+    public void addValidatorStats(List<ValidatorStats> deltas) {
+        String sql = "INSERT INTO " + VALIDATOR_STATS + " (" + VALIDATOR_STATS_COLUMNS + ") VALUES ("
+                + placeholders(7) + ")"
+                + " ON DUPLICATE KEY UPDATE blocks_led = blocks_led + VALUES(blocks_led),"
+                + " votes_cast = votes_cast + VALUES(votes_cast),"
+                + " last_led_block = COALESCE(VALUES(last_led_block), last_led_block),"
+                + " last_voted_block = COALESCE(VALUES(last_voted_block), last_voted_block),"
+                + " last_updated = VALUES(last_updated)";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ValidatorStats delta = deltas.get(i);
+                int index = 1;
+                ps.setString(index++, delta.getAddress());
+                ps.setLong(index++, delta.getBlocksLed());
+                ps.setLong(index++, delta.getVotesCast());
+                setDecimal(ps, index++, delta.getFirstSeenBlock());
+                setDecimal(ps, index++, delta.getLastLedBlock());
+                setDecimal(ps, index++, delta.getLastVotedBlock());
+                ps.setTimestamp(index, toTimestamp(delta.getLastUpdated()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    /**
+     * 批量累加代币余额：balance 字段为变动量，不存在的 (holder, token) 新建（MySQL ON DUPLICATE KEY UPDATE）
+     */
+    public void addTokenBalances(List<TokenBalance> deltas) {
+        String sql = "INSERT INTO " + TOKEN_BALANCES + " (holder, token, balance, last_block) VALUES (?, ?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), last_block = VALUES(last_block)";
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TokenBalance delta = deltas.get(i);
+                ps.setString(1, delta.getHolder());
+                ps.setString(2, delta.getToken());
+                setDecimal(ps, 3, delta.getBalance());
+                setDecimal(ps, 4, delta.getLastBlock());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    /**
+     * 把旧版本按节点原样写入的 pos_leader 改为小写（遍历 posLeader 索引的全部条目，一次性迁移）
+     *
+     * @param upTo 只处理不大于该区块号的区块
+     * @return 更新的行数
+     */
+    public int lowerCasePosLeaders(BigInteger upTo) {
+        return jdbcTemplate.update("UPDATE " + BLOCKS + " SET pos_leader = LOWER(pos_leader)"
+                + " WHERE pos_leader IS NOT NULL AND pos_leader <> LOWER(pos_leader) AND block_number <= ?",
+                new BigDecimal(upTo));
+    }
+
+    /**
+     * 上一次重建保留的 *_old 表是否仍存在（MySQL）
+     */
+    public boolean oldTablesExist() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables"
+                + " WHERE table_schema = DATABASE() AND table_name IN (?, ?)", Integer.class,
+                BLOCKS + OLD_SUFFIX, TRANSACTIONS + OLD_SUFFIX);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 区块表的 {最小区块号, 最大区块号, 行数}，空表时区块号为 -1
+     */
+    public long[] blockRange(String table) {
+        return jdbcTemplate.queryForObject("SELECT MIN(block_number), MAX(block_number), COUNT(*) FROM " + table,
+                (rs, rowNum) -> new long[] {
+                        rs.getObject(1) == null ? -1 : rs.getLong(1),
+                        rs.getObject(2) == null ? -1 : rs.getLong(2),
+                        rs.getLong(3) });
+    }
+
+    public long countRows(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 用一条 RENAME TABLE 原子地切换影子表和正式表，旧表保留为 *_old
+     * 不删除已有的 *_old 表（此时 RENAME 失败，正式表不变），调用方应先确认其不存在
+     */
+    public void swapShadowTables() {
+        jdbcTemplate.execute("RENAME TABLE "
+                + BLOCKS + " TO " + BLOCKS + OLD_SUFFIX + ", "
+                + BLOCKS + SHADOW_SUFFIX + " TO " + BLOCKS + ", "
+                + TRANSACTIONS + " TO " + TRANSACTIONS + OLD_SUFFIX + ", "
+                + TRANSACTIONS + SHADOW_SUFFIX + " TO " + TRANSACTIONS);
+    }
+
+    private static void setBlockValues(PreparedStatement ps, Block block, Timestamp now) throws SQLException {
+        int i = 1;
+        setDecimal(ps, i++, block.getBlockNumber());
+        ps.setString(i++, block.getBlockHash());
+        ps.setString(i++, block.getParentHash());
+        ps.setTimestamp(i++, toTimestamp(block.getTimestamp()));
+        ps.setString(i++, block.getMiner());
+        setDecimal(ps, i++, block.getGasUsed());
+        setDecimal(ps, i++, block.getGasLimit());
+        setDecimal(ps, i++, block.getDifficulty());
+        setDecimal(ps, i++, block.getNonce());
+        setInteger(ps, i++, block.getTransactionCount());
+        ps.setString(i++, block.getRandomNumber());
+        ps.setString(i++, block.getRandomRoot());
+        setDecimal(ps, i++, block.getPowDifficulty());
+        setDecimal(ps, i++, block.getPowGas());
+        setDecimal(ps, i++, block.getPowPrice());
+        ps.setString(i++, block.getPosLeader());
+        ps.setString(i++, block.getPosVoting());
+        setDecimal(ps, i++, block.getCommitTxLength());
+        ps.setString(i++, block.getTainted());
+        setDecimal(ps, i++, block.getIncentive());
+        setDecimal(ps, i++, block.getBaseFee());
+        ps.setTimestamp(i, now);
+    }
+
+    private static void setTransactionValues(PreparedStatement ps, Transaction tx, Timestamp now)
+            throws SQLException {
+        int i = 1;
+        ps.setString(i++, tx.getTxHash());
+        setDecimal(ps, i++, tx.getBlockNumber());
+        ps.setString(i++, tx.getBlockHash());
+        setInteger(ps, i++, tx.getTransactionIndex());
+        ps.setString(i++, tx.getFromAddress());
+        ps.setString(i++, tx.getToAddress());
+        setDecimal(ps, i++, tx.getValue());
+        setDecimal(ps, i++, tx.getGasPrice());
+        setDecimal(ps, i++, tx.getGas());
+        setDecimal(ps, i++, tx.getGasUsed());
+        ps.setString(i++, tx.getInput());
+        setDecimal(ps, i++, tx.getNonce());
+        setInteger(ps, i++, tx.getStatus());
+        setInteger(ps, i++, tx.getTxType());
+        ps.setTimestamp(i++, toTimestamp(tx.getTimestamp()));
+        ps.setTimestamp(i, now);
+    }
+
+    private static void setEventLogValues(PreparedStatement ps, EventLog log) throws SQLException {
+        int i = 1;
+        setDecimal(ps, i++, log.getBlockNumber());
+        setInteger(ps, i++, log.getLogIndex());
+        ps.setString(i++, log.getTxHash());
+        setInteger(ps, i++, log.getTransactionIndex());
+        ps.setString(i++, log.getAddress());
+        ps.setString(i++, log.getTopic0());
+        ps.setString(i++, log.getTopic1());
+        ps.setString(i++, log.getTopic2());
+        ps.setString(i++, log.getTopic3());
+        ps.setString(i, log.getData());
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigInteger value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setBigDecimal(index, new BigDecimal(value));
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+}
@@ -1,11 +1,14 @@
 package com.blockchain.explorer.repository;
 
 import com.blockchain.explorer.entity.Block;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,6 +22,11 @@ public interface BlockRepository extends JpaRepository<Block, Long> {
      */
     Optional<Block> findByBlockNumber(BigInteger blockNumber);
 
+    /**
+     * 指定区块号之后的区块（按区块号升序分页）
+     */
+    List<Block> findByBlockNumberGreaterThanOrderByBlockNumberAsc(BigInteger blockNumber, Pageable pageable);
+
     /**
      * 根据区块哈希查询
      */
@@ -34,4 +42,25 @@ public interface BlockRepository extends JpaRepository<Block, Long> {
      * 检查区块号是否存在
      */
     boolean existsByBlockNumber(BigInteger blockNumber);
+
+    /**
+     * 按区块号范围查询（升序）
+     */
+    List<Block> findByBlockNumberBetweenOrderByBlockNumberAsc(BigInteger fromBlock, BigInteger toBlock);
+
+    /**
+     * 按区块哈希前缀查询（走唯一索引范围扫描）
+     */
+    List<Block> findTop10ByBlockHashStartingWith(String prefix);
+
+    /**
+     * 按主键游标扫描 (id, 区块哈希, 矿工, 区块号)，用于重建内存索引
+     */
+    @Query("SELECT b.id, b.blockHash, b.miner, b.blockNumber FROM Block b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findHashesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 统计地址从指定区块号起作为 posLeader 的区块数（走 posLeader,blockNumber 索引，地址需为小写）
+     */
+    long countByPosLeaderAndBlockNumberGreaterThanEqual(String posLeader, BigInteger fromBlock);
 }
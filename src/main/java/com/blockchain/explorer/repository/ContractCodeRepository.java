@@ -0,0 +1,24 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.ContractCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 合约字节码数据访问接口
+ */
+@Repository
+public interface ContractCodeRepository extends JpaRepository<ContractCode, Long> {
+
+    /**
+     * 根据代码哈希查询
+     */
+    Optional<ContractCode> findByCodeHash(String codeHash);
+
+    /**
+     * 检查代码哈希是否已登记
+     */
+    boolean existsByCodeHash(String codeHash);
+}
@@ -0,0 +1,75 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.EventLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * 事件日志数据访问接口
+ * 游标分页：返回 (blockNumber, logIndex) 严格小于 (beforeBlock, beforeLogIndex) 且不早于 fromBlock 的日志，倒序
+ */
+@Repository
+public interface EventLogRepository extends JpaRepository<EventLog, Long> {
+
+    /**
+     * 查询交易产生的日志
+     */
+    List<EventLog> findByTxHashOrderByLogIndexAsc(String txHash);
+
+    /**
+     * 按合约地址 + topic0（走 address,topic0,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT l FROM EventLog l WHERE l.address = :address AND l.topic0 = :topic0"
+            + " AND l.blockNumber >= :fromBlock AND (l.blockNumber < :beforeBlock"
+            + " OR (l.blockNumber = :beforeBlock AND l.logIndex < :beforeLogIndex))"
+            + " ORDER BY l.blockNumber DESC, l.logIndex DESC")
+    List<EventLog> findByAddressAndTopic0Before(@Param("address") String address,
+            @Param("topic0") String topic0,
+            @Param("fromBlock") BigInteger fromBlock,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 按合约地址（走 address,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT l FROM EventLog l WHERE l.address = :address"
+            + " AND l.blockNumber >= :fromBlock AND (l.blockNumber < :beforeBlock"
+            + " OR (l.blockNumber = :beforeBlock AND l.logIndex < :beforeLogIndex))"
+            + " ORDER BY l.blockNumber DESC, l.logIndex DESC")
+    List<EventLog> findByAddressBefore(@Param("address") String address,
+            @Param("fromBlock") BigInteger fromBlock,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 按 topic0（走 topic0,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT l FROM EventLog l WHERE l.topic0 = :topic0"
+            + " AND l.blockNumber >= :fromBlock AND (l.blockNumber < :beforeBlock"
+            + " OR (l.blockNumber = :beforeBlock AND l.logIndex < :beforeLogIndex))"
+            + " ORDER BY l.blockNumber DESC, l.logIndex DESC")
+    List<EventLog> findByTopic0Before(@Param("topic0") String topic0,
+            @Param("fromBlock") BigInteger fromBlock,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 不带过滤条件（走 blockNumber,logIndex 唯一索引）
+     */
+    @Query("SELECT l FROM EventLog l WHERE l.blockNumber >= :fromBlock AND (l.blockNumber < :beforeBlock"
+            + " OR (l.blockNumber = :beforeBlock AND l.logIndex < :beforeLogIndex))"
+            + " ORDER BY l.blockNumber DESC, l.logIndex DESC")
+    List<EventLog> findAllBefore(@Param("fromBlock") BigInteger fromBlock,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.PosVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * PoS投票数据访问接口
+ */
+@Repository
+public interface PosVoteRepository extends JpaRepository<PosVote, Long> {
+
+    /**
+     * 查询区块的投票列表
+     */
+    List<PosVote> findByBlockNumberOrderByVoteIndexAsc(BigInteger blockNumber);
+
+    /**
+     * 统计验证者在区块号范围内的投票次数（走 validator,blockNumber 索引）
+     */
+    long countByValidatorAndBlockNumberGreaterThanEqual(String validator, BigInteger fromBlock);
+}
@@ -0,0 +1,12 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.SyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 同步游标数据访问接口
+ */
+@Repository
+public interface SyncCursorRepository extends JpaRepository<SyncCursor, String> {
+}
@@ -0,0 +1,38 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.SyncLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同步租约数据访问接口
+ */
+@Repository
+public interface SyncLeaseRepository extends JpaRepository<SyncLease, String> {
+
+    /**
+     * 获取或续约：租约已由自己持有或已过期时更新为自己持有（单条条件UPDATE，数据库保证只有一个节点成功）
+     *
+     * @return 更新行数，1表示成功
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncLease l SET l.owner = :owner, l.expiresAt = :expiresAt, l.renewedAt = :now " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+            @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 主动释放自己持有的租约
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE SyncLease l SET l.expiresAt = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,60 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.TaintedTransaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * 污点交易数据访问接口
+ */
+@Repository
+public interface TaintedTransactionRepository extends JpaRepository<TaintedTransaction, Long> {
+
+    /**
+     * 检查交易是否被标记为污点
+     */
+    boolean existsByTxHash(String txHash);
+
+    /**
+     * 检查地址是否涉及污点交易
+     */
+    @Query("SELECT COUNT(t) > 0 FROM TaintedTransaction t WHERE t.fromAddress = :address OR t.toAddress = :address")
+    boolean existsByAddress(@Param("address") String address);
+
+    /**
+     * 查询区块标记的污点交易
+     */
+    List<TaintedTransaction> findByBlockNumber(BigInteger blockNumber);
+
+    /**
+     * 查询地址涉及的污点交易
+     */
+    @Query("SELECT t FROM TaintedTransaction t WHERE t.fromAddress = :address OR t.toAddress = :address "
+            + "ORDER BY t.blockNumber DESC")
+    Page<TaintedTransaction> findByAddress(@Param("address") String address, Pageable pageable);
+
+    /**
+     * 交易入库后补填地址（只更新尚未填写的记录）
+     *
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("UPDATE TaintedTransaction t SET t.fromAddress = :fromAddress, t.toAddress = :toAddress "
+            + "WHERE t.txHash = :txHash AND t.fromAddress IS NULL")
+    int resolveAddresses(@Param("txHash") String txHash, @Param("fromAddress") String fromAddress,
+            @Param("toAddress") String toAddress);
+
+    /**
+     * 全部 (交易哈希, 发送方, 接收方)，用于启动时重建过滤器
+     */
+    @Query("SELECT t.txHash, t.fromAddress, t.toAddress FROM TaintedTransaction t")
+    List<Object[]> findAllKeys();
+}
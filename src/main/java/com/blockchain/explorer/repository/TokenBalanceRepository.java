@@ -0,0 +1,27 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.TokenBalance;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * 代币余额数据访问接口
+ */
+@Repository
+public interface TokenBalanceRepository extends JpaRepository<TokenBalance, Long> {
+
+    /**
+     * 持有者的所有代币余额（走 holder,token 唯一索引）
+     */
+    List<TokenBalance> findByHolderAndBalanceGreaterThanOrderByTokenAsc(String holder, BigInteger minBalance);
+
+    /**
+     * 代币持有者排行（走 token,balance 索引）
+     */
+    List<TokenBalance> findByTokenAndBalanceGreaterThanOrderByBalanceDesc(String token, BigInteger minBalance,
+            Pageable pageable);
+}
@@ -0,0 +1,57 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.TokenTransfer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * 代币转账数据访问接口
+ * 游标分页：返回 (blockNumber, logIndex) 严格小于 (beforeBlock, beforeLogIndex) 的转账，倒序
+ */
+@Repository
+public interface TokenTransferRepository extends JpaRepository<TokenTransfer, Long> {
+
+    /**
+     * 代币的转账历史（走 token,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT t FROM TokenTransfer t WHERE t.token = :token AND (t.blockNumber < :beforeBlock"
+            + " OR (t.blockNumber = :beforeBlock AND t.logIndex < :beforeLogIndex))"
+            + " ORDER BY t.blockNumber DESC, t.logIndex DESC")
+    List<TokenTransfer> findByTokenBefore(@Param("token") String token,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 地址转出的代币转账（走 fromAddress,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT t FROM TokenTransfer t WHERE t.fromAddress = :address AND (t.blockNumber < :beforeBlock"
+            + " OR (t.blockNumber = :beforeBlock AND t.logIndex < :beforeLogIndex))"
+            + " ORDER BY t.blockNumber DESC, t.logIndex DESC")
+    List<TokenTransfer> findByFromAddressBefore(@Param("address") String address,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 地址转入的代币转账（走 toAddress,blockNumber,logIndex 索引）
+     */
+    @Query("SELECT t FROM TokenTransfer t WHERE t.toAddress = :address AND (t.blockNumber < :beforeBlock"
+            + " OR (t.blockNumber = :beforeBlock AND t.logIndex < :beforeLogIndex))"
+            + " ORDER BY t.blockNumber DESC, t.logIndex DESC")
+    List<TokenTransfer> findByToAddressBefore(@Param("address") String address,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeLogIndex") Integer beforeLogIndex,
+            Pageable pageable);
+
+    /**
+     * 区块范围内已索引的转账（重新抓取同一范围时用于回退余额）
+     */
+    List<TokenTransfer> findByBlockNumberBetween(BigInteger fromBlock, BigInteger toBlock);
+}
@@ -43,4 +43,38 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     @Query("SELECT t FROM Transaction t WHERE t.fromAddress = :address OR t.toAddress = :address ORDER BY t.timestamp DESC")
     Page<Transaction> findByAddress(@Param("address") String address, Pageable pageable);
+
+    /**
+     * 查询区块范围内所有交易的 (区块号, gasPrice)
+     */
+    @Query("SELECT t.blockNumber, t.gasPrice FROM Transaction t WHERE t.blockNumber BETWEEN :fromBlock AND :toBlock")
+    List<Object[]> findGasPricesByBlockRange(@Param("fromBlock") BigInteger fromBlock,
+            @Param("toBlock") BigInteger toBlock);
+
+    /**
+     * 按交易哈希前缀查询（走唯一索引范围扫描）
+     */
+    List<Transaction> findTop10ByTxHashStartingWith(String prefix);
+
+    /**
+     * 按主键游标扫描 (id, 交易哈希, 发送方, 接收方)，用于重建内存索引
+     */
+    @Query("SELECT t.id, t.txHash, t.fromAddress, t.toAddress FROM Transaction t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findHashesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按类型倒序查询最新交易（走 txType,blockNumber,transactionIndex 索引）
+     */
+    List<Transaction> findByTxTypeOrderByBlockNumberDescTransactionIndexDesc(Integer txType, Pageable pageable);
+
+    /**
+     * 按类型从 (beforeBlock, beforeIndex) 之前继续向前翻页，用于游标分页
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.txType = :txType AND (t.blockNumber < :beforeBlock"
+            + " OR (t.blockNumber = :beforeBlock AND t.transactionIndex < :beforeIndex))"
+            + " ORDER BY t.blockNumber DESC, t.transactionIndex DESC")
+    List<Transaction> findByTxTypeBefore(@Param("txType") Integer txType,
+            @Param("beforeBlock") BigInteger beforeBlock,
+            @Param("beforeIndex") Integer beforeIndex,
+            Pageable pageable);
 }
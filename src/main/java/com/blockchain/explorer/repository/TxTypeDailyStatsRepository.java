@@ -0,0 +1,32 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.TxTypeDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 交易类型日汇总数据访问接口
+ */
+@Repository
+public interface TxTypeDailyStatsRepository extends JpaRepository<TxTypeDailyStats, Long> {
+
+    /**
+     * 查询某天的所有类型汇总
+     */
+    List<TxTypeDailyStats> findByDay(LocalDate day);
+
+    /**
+     * 按日期范围查询（走 day,txType 唯一索引）
+     */
+    List<TxTypeDailyStats> findByDayBetweenOrderByDayAscTxTypeAsc(LocalDate fromDay, LocalDate toDay);
+
+    /**
+     * 各类型累计交易数 (类型, 总数)，用于启动时初始化内存计数器
+     */
+    @Query("SELECT s.txType, SUM(s.txCount) FROM TxTypeDailyStats s GROUP BY s.txType")
+    List<Object[]> sumByTxType();
+}
@@ -0,0 +1,19 @@
+package com.blockchain.explorer.repository;
+
+import com.blockchain.explorer.entity.ValidatorStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 验证者统计数据访问接口
+ */
+@Repository
+public interface ValidatorStatsRepository extends JpaRepository<ValidatorStats, Long> {
+
+    /**
+     * 根据地址查询
+     */
+    Optional<ValidatorStats> findByAddress(String address);
+}
@@ -0,0 +1,269 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.repository.AccountStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * 账户排行榜服务
+ * 在内存中维护按余额、质押金额、交易总价值排序的Top-K账户，
+ * 由账户状态更新增量维护，启动时从数据库重建
+ */
+@Slf4j
+@Service
+public class AccountLeaderboardService {
+
+    /**
+     * 排行指标
+     */
+    public enum Metric {
+        BALANCE("balance", AccountState::getBalance),
+        PLEDGE_AMOUNT("pledgeAmount", AccountState::getPledgeAmount),
+        TOTAL_VALUE_TX("totalValueTx", AccountState::getTotalValueTx);
+
+        private final String property;
+        private final Function<AccountState, BigInteger> getter;
+
+        Metric(String property, Function<AccountState, BigInteger> getter) {
+            this.property = property;
+            this.getter = getter;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * 按属性名解析指标（忽略大小写），未知返回null
+         */
+        public static Metric fromProperty(String property) {
+            for (Metric metric : values()) {
+                if (metric.property.equalsIgnoreCase(property)) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private AccountStateRepository accountStateRepository;
+
+    /**
+     * 每个榜单对外提供的条目数
+     */
+    @Value("${blockchain.leaderboard.size:100}")
+    private int size;
+
+    private final Map<Metric, Board> boards = new EnumMap<>(Metric.class);
+
+    @PostConstruct
+    public void init() {
+        for (Metric metric : Metric.values()) {
+            boards.put(metric, new Board(metric, size));
+        }
+        for (Metric metric : Metric.values()) {
+            try {
+                rebuild(metric);
+            } catch (Exception e) {
+                log.error("Failed to build {} leaderboard from database", metric.getProperty(), e);
+            }
+        }
+    }
+
+    /**
+     * 账户状态写入后调用，增量更新所有榜单
+     */
+    public void onAccountUpdated(AccountState accountState) {
+        if (accountState == null || accountState.getAddress() == null) {
+            return;
+        }
+        for (Board board : boards.values()) {
+            board.update(accountState.getAddress(), board.metric.getter.apply(accountState));
+        }
+    }
+
+    /**
+     * 获取榜单前limit名
+     */
+    public List<Map<String, Object>> getTop(Metric metric, int limit) {
+        Board board = boards.get(metric);
+        if (board.isStale()) {
+            rebuild(metric);
+        }
+        List<Map<String, Object>> snapshot = board.snapshot;
+        return snapshot.subList(0, Math.min(Math.max(limit, 0), snapshot.size()));
+    }
+
+    /**
+     * 从数据库重建指定榜单（仅在启动或榜单因账户下榜而不足时触发）
+     * 查询和重置都在榜单锁内进行：并发读请求只重建一次，期间的增量更新等待重建完成后再应用，不会丢失
+     */
+    private void rebuild(Metric metric) {
+        Board board = boards.get(metric);
+        synchronized (board) {
+            if (!board.isStale()) {
+                return;
+            }
+            List<AccountState> accounts = accountStateRepository.findTopAccounts(
+                    PageRequest.of(0, board.capacity, Sort.by(Sort.Direction.DESC, metric.getProperty())));
+            board.reset(accounts);
+            log.info("Rebuilt {} leaderboard with {} accounts", metric.getProperty(), accounts.size());
+        }
+    }
+
+    /**
+     * 单个榜单
+     * 实际保留 2*size 个条目作为缓冲，避免账户下榜时频繁回查数据库
+     */
+    private static class Board {
+
+        private static final Comparator<Entry> ORDER = Comparator
+                .comparing((Entry e) -> e.value).reversed()
+                .thenComparing(e -> e.address);
+
+        private final Metric metric;
+        private final int size;
+        private final int capacity;
+        private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+        private final Map<String, Entry> byAddress = new HashMap<>();
+
+        /**
+         * 数据库中是否可能还有未进入缓冲区的账户
+         */
+        private boolean truncated;
+
+        /**
+         * 缓冲区外账户指标值的上界（truncated 时有效），只有超过它的账户才能进入缓冲区
+         */
+        private BigInteger outsideMax = BigInteger.ZERO;
+
+        /**
+         * 需要从数据库重建（初始为 true，启动重建失败时由下次读取重试）
+         */
+        private boolean stale = true;
+
+        /**
+         * 只读快照，读请求无需加锁
+         */
+        private volatile List<Map<String, Object>> snapshot = Collections.emptyList();
+
+        Board(Metric metric, int size) {
+            this.metric = metric;
+            this.size = size;
+            this.capacity = size * 2;
+        }
+
+        synchronized void reset(List<AccountState> accounts) {
+            ranking.clear();
+            byAddress.clear();
+            for (AccountState account : accounts) {
+                BigInteger value = metric.getter.apply(account);
+                if (value != null && value.signum() > 0) {
+                    Entry entry = new Entry(account.getAddress(), value);
+                    ranking.add(entry);
+                    byAddress.put(entry.address, entry);
+                }
+            }
+            truncated = accounts.size() >= capacity;
+            outsideMax = BigInteger.ZERO;
+            if (truncated) {
+                // 按指标降序加载，未加载的账户不超过最后一个
+                BigInteger last = metric.getter.apply(accounts.get(accounts.size() - 1));
+                outsideMax = last != null ? last : BigInteger.ZERO;
+            }
+            stale = false;
+            refreshSnapshot();
+        }
+
+        synchronized void update(String address, BigInteger value) {
+            Entry previous = byAddress.remove(address);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+
+            if (value != null && value.signum() > 0) {
+                // 截断后缓冲区外可能有更大的值，不超过其上界的账户不能直接（重新）进入缓冲区
+                boolean aboveOutside = !truncated || value.compareTo(outsideMax) > 0;
+                if (aboveOutside && (ranking.size() < capacity || value.compareTo(ranking.last().value) > 0)) {
+                    Entry entry = new Entry(address, value);
+                    ranking.add(entry);
+                    byAddress.put(address, entry);
+                    if (ranking.size() > capacity) {
+                        Entry evicted = ranking.pollLast();
+                        byAddress.remove(evicted.address);
+                        markOutside(evicted.value);
+                    }
+                } else {
+                    markOutside(value);
+                }
+            }
+
+            // 缓冲区低于榜单大小且数据库中可能有更多账户时，下次读取前重建
+            if (truncated && ranking.size() < size) {
+                stale = true;
+            }
+            if (previous != null || byAddress.containsKey(address)) {
+                refreshSnapshot();
+            }
+        }
+
+        /**
+         * 账户留在缓冲区外：记录外部上界
+         */
+        private void markOutside(BigInteger value) {
+            if (!truncated || value.compareTo(outsideMax) > 0) {
+                outsideMax = value;
+            }
+            truncated = true;
+        }
+
+        synchronized boolean isStale() {
+            return stale;
+        }
+
+        private void refreshSnapshot() {
+            List<Map<String, Object>> top = new ArrayList<>(Math.min(size, ranking.size()));
+            int rank = 1;
+            for (Entry entry : ranking) {
+                if (rank > size) {
+                    break;
+                }
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("rank", rank++);
+                item.put("address", entry.address);
+                item.put(metric.getProperty(), entry.value.toString());
+                top.add(Collections.unmodifiableMap(item));
+            }
+            snapshot = Collections.unmodifiableList(top);
+        }
+    }
+
+    private static class Entry {
+        private final String address;
+        private final BigInteger value;
+
+        Entry(String address, BigInteger value) {
+            this.address = address;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.dto.ExtendedBlockData;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.util.HexQuantity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 区块/交易实体转换器
+ * 实时同步和离线重建共用同一套转换逻辑
+ */
+@Component
+public class BlockConverter {
+
+    /**
+     * web3j 自带的 ObjectMapper，忽略私链交易中的未知字段
+     */
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    /**
+     * 转换扩展区块数据（包含所有自定义字段）
+     */
+    public Block convertToBlockEntity(ExtendedBlockData extendedBlock) {
+        Block block = new Block();
+
+        // 基础字段
+        block.setBlockNumber(ExtendedBlockData.toBigInteger(extendedBlock.getNumber()));
+        block.setBlockHash(extendedBlock.getHash());
+        block.setParentHash(extendedBlock.getParentHash());
+        block.setTimestamp(convertTimestamp(ExtendedBlockData.toBigInteger(extendedBlock.getTime())));
+        block.setMiner(extendedBlock.getCoinbase());
+        block.setGasUsed(ExtendedBlockData.toBigInteger(extendedBlock.getGasUsed()));
+        block.setGasLimit(ExtendedBlockData.toBigInteger(extendedBlock.getGasLimit()));
+        block.setDifficulty(ExtendedBlockData.toBigInteger(extendedBlock.getDifficulty()));
+        block.setNonce(ExtendedBlockData.toBigInteger(extendedBlock.getNonce()));
+
+        // 交易数量（从 transactions 字段获取）
+        if (extendedBlock.getTransactions() instanceof java.util.List) {
+            block.setTransactionCount(((java.util.List<?>) extendedBlock.getTransactions()).size());
+        } else {
+            block.setTransactionCount(0);
+        }
+
+        // ===== 私链自定义字段 =====
+
+        // 随机数相关
+        block.setRandomNumber(extendedBlock.getRandomNumber());
+        block.setRandomRoot(extendedBlock.getRandomRoot());
+
+        // PoW 相关
+        block.setPowDifficulty(ExtendedBlockData.toBigInteger(extendedBlock.getPowDifficulty()));
+        block.setPowGas(ExtendedBlockData.toBigInteger(extendedBlock.getPowGas()));
+        block.setPowPrice(ExtendedBlockData.toBigInteger(extendedBlock.getPowPrice()));
+
+        // PoS 相关
+        // 统一小写，与 pos_votes / validator_stats 中的地址一致（按索引等值查询）
+        String posLeader = extendedBlock.getPosLeader();
+        block.setPosLeader(posLeader == null ? null : posLeader.trim().toLowerCase(Locale.ROOT));
+        block.setPosVoting(extendedBlock.getPosVoting());
+
+        // Commit 和污点交易
+        block.setCommitTxLength(ExtendedBlockData.toBigInteger(extendedBlock.getCommitTxLength()));
+        block.setTainted(extendedBlock.getTainted());
+
+        // 激励和费用
+        block.setIncentive(ExtendedBlockData.toBigInteger(extendedBlock.getIncentive()));
+        block.setBaseFee(ExtendedBlockData.toBigInteger(extendedBlock.getBaseFee()));
+
+        return block;
+    }
+
+    /**
+     * 转换交易数据
+     */
+    public Transaction convertToTransactionEntity(EthBlock.TransactionObject txObject, BigInteger blockTimestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setTxHash(txObject.getHash());
+        transaction.setBlockNumber(txObject.getBlockNumber());
+        transaction.setBlockHash(txObject.getBlockHash());
+        transaction.setTransactionIndex(txObject.getTransactionIndex().intValue());
+        transaction.setFromAddress(txObject.getFrom());
+        transaction.setToAddress(txObject.getTo());
+        transaction.setValue(txObject.getValue());
+        transaction.setGasPrice(txObject.getGasPrice());
+        transaction.setGas(txObject.getGas());
+        transaction.setInput(txObject.getInput());
+        transaction.setNonce(txObject.getNonce());
+        transaction.setTxType(decodeTxType(txObject.getType()));
+        transaction.setTimestamp(convertTimestamp(blockTimestamp));
+        return transaction;
+    }
+
+    /**
+     * 解析交易类型，节点未返回 type 时为 Legacy，无法解析或超出 TINYINT 范围（0-127）时为空
+     */
+    public static Integer decodeTxType(String type) {
+        long value;
+        try {
+            value = HexQuantity.toLong(type);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return value >= 0 && value <= Byte.MAX_VALUE ? (int) value : null;
+    }
+
+    /**
+     * 转换时间戳
+     */
+    public LocalDateTime convertTimestamp(BigInteger timestamp) {
+        return LocalDateTime.ofInstant(
+                Instant.ofEpochSecond(timestamp.longValue()),
+                ZoneId.systemDefault());
+    }
+
+    /**
+     * 转换 eth_getBlockByNumber(..., true) 的原始结果（用于离线重建）
+     */
+    public ConvertedBlock convertRawBlock(Map<String, Object> rawBlock) {
+        ExtendedBlockData extendedBlock = objectMapper.convertValue(rawBlock, ExtendedBlockData.class);
+        Block block = convertToBlockEntity(extendedBlock);
+        BigInteger timestamp = ExtendedBlockData.toBigInteger(extendedBlock.getTime());
+
+        List<Transaction> transactions = Collections.emptyList();
+        if (extendedBlock.getTransactions() instanceof List) {
+            List<?> rawTransactions = (List<?>) extendedBlock.getTransactions();
+            transactions = new ArrayList<>(rawTransactions.size());
+            for (Object rawTransaction : rawTransactions) {
+                EthBlock.TransactionObject txObject = objectMapper.convertValue(rawTransaction,
+                        EthBlock.TransactionObject.class);
+                transactions.add(convertToTransactionEntity(txObject, timestamp));
+            }
+        }
+        return new ConvertedBlock(block, transactions);
+    }
+
+    /**
+     * 转换后的区块及其交易
+     */
+    public static class ConvertedBlock {
+        private final Block block;
+        private final List<Transaction> transactions;
+
+        public ConvertedBlock(Block block, List<Transaction> transactions) {
+            this.block = block;
+            this.transactions = transactions;
+        }
+
+        public Block getBlock() {
+            return block;
+        }
+
+        public List<Transaction> getTransactions() {
+            return transactions;
+        }
+    }
+}
@@ -1,18 +1,16 @@
 package com.blockchain.explorer.service;
 
 import com.blockchain.explorer.dto.ExtendedBlockData;
+import com.blockchain.explorer.dto.FetchedBlock;
 import com.blockchain.explorer.entity.AccountState;
 import com.blockchain.explorer.entity.Block;
 import com.blockchain.explorer.entity.Transaction;
-import com.blockchain.explorer.repository.AccountStateRepository;
 import com.blockchain.explorer.repository.BlockRepository;
-import com.blockchain.explorer.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.methods.response.EthBlock;
@@ -21,15 +19,20 @@ import org.web3j.protocol.core.methods.response.EthGetBalance;
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 区块同步服务
- * 定时从区块链读取新区块和交易数据，存储到数据库
+ * 区块同步服务（同步流水线的抓取阶段）
+ * 定时从区块链读取新区块、交易和涉及账户的状态，放入写入队列，由 {@link BlockWriterService} 入库
+ * 多实例部署时只有持有同步租约的领导节点写入（见 {@link LeaderElectionService}），
+ * 其他节点从数据库重放新区块，更新本节点的内存统计和索引
  */
 @Slf4j
 @Service
@@ -42,16 +45,34 @@ public class BlockSyncService {
     private BlockRepository blockRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private CustomRpcService customRpcService;
 
     @Autowired
-    private AccountStateRepository accountStateRepository;
+    private ExtendedBlockService extendedBlockService;
 
     @Autowired
-    private CustomRpcService customRpcService;
+    private BlockConverter blockConverter;
 
     @Autowired
-    private ExtendedBlockService extendedBlockService;
+    private ReindexService reindexService;
+
+    @Autowired
+    private ExtendedAccountService extendedAccountService;
+
+    @Autowired
+    private ContractRegistryService contractRegistryService;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private BlockWriterService blockWriterService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ValidatorStatsService validatorStatsService;
 
     @Value("${blockchain.sync.sync-from-genesis}")
     private boolean syncFromGenesis;
@@ -64,6 +85,12 @@ public class BlockSyncService {
 
     private volatile boolean isRunning = false;
 
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong blocksFetched = new AtomicLong();
+    private final AtomicLong transactionsFetched = new AtomicLong();
+    private final AtomicLong fetchNanos = new AtomicLong();
+    private volatile long lastFetchedBlock = -1;
+
     @PostConstruct
     public void init() {
         log.info("BlockSyncService initialized");
@@ -81,24 +108,43 @@ public class BlockSyncService {
             log.debug("Previous sync task is still running, skipping...");
             return;
         }
+        if (reindexService.isRunning()) {
+            log.debug("Re-index in progress, skipping sync...");
+            return;
+        }
 
         try {
             isRunning = true;
 
+            // 其他节点已写入的区块（跟随节点，或刚接任的领导节点）
+            long term = leaderElectionService.getTerm();
+            blockWriterService.replayFromDatabase();
+            if (!leaderElectionService.isLeader()) {
+                log.debug("Not the sync leader, skipping sync...");
+                return;
+            }
+            searchIndexService.markCaughtUp(term);
+            validatorStatsService.normalizePosLeaders();
+            int generation = blockWriterService.getGeneration();
+
             // 获取链上最新区块号
             BigInteger latestBlockNumber = web3j.ethBlockNumber().send().getBlockNumber();
 
-            // 获取数据库中最新区块号
-            BigInteger dbLatestBlockNumber = blockRepository.findMaxBlockNumber();
-
-            // 确定起始同步区块号
+            // 确定起始同步区块号：接着已放入写入队列的区块，队列重置后从数据库最新区块开始
             BigInteger syncFromBlockNumber;
-            if (dbLatestBlockNumber == null) {
-                // 数据库为空，从配置的起始区块开始
-                syncFromBlockNumber = syncFromGenesis ? BigInteger.ZERO : BigInteger.valueOf(startBlock);
+            long lastEnqueued = blockWriterService.getLastEnqueued();
+            if (lastEnqueued >= 0) {
+                syncFromBlockNumber = BigInteger.valueOf(lastEnqueued + 1);
             } else {
-                // 从数据库最新区块的下一个区块开始
-                syncFromBlockNumber = dbLatestBlockNumber.add(BigInteger.ONE);
+                // 获取数据库中最新区块号
+                BigInteger dbLatestBlockNumber = blockRepository.findMaxBlockNumber();
+                if (dbLatestBlockNumber == null) {
+                    // 数据库为空，从配置的起始区块开始
+                    syncFromBlockNumber = syncFromGenesis ? BigInteger.ZERO : BigInteger.valueOf(startBlock);
+                } else {
+                    // 从数据库最新区块的下一个区块开始
+                    syncFromBlockNumber = dbLatestBlockNumber.add(BigInteger.ONE);
+                }
             }
 
             // 计算本次同步的结束区块号
@@ -113,18 +159,32 @@ public class BlockSyncService {
                 return;
             }
 
-            log.info("Syncing blocks from {} to {} (chain latest: {})",
+            log.info("Fetching blocks from {} to {} (chain latest: {})",
                     syncFromBlockNumber, syncToBlockNumber, latestBlockNumber);
 
-            // 逐个同步区块
+            // 逐个抓取区块，写入队列满时阻塞
             for (BigInteger blockNumber = syncFromBlockNumber; blockNumber
                     .compareTo(syncToBlockNumber) <= 0; blockNumber = blockNumber.add(BigInteger.ONE)) {
 
-                syncBlock(blockNumber);
+                // 租约可能在批次中途过期，此时交给新的领导节点继续
+                if (!leaderElectionService.isLeader()) {
+                    log.warn("Lost sync leadership before block {}, stopping", blockNumber);
+                    return;
+                }
+                FetchedBlock fetched = fetchBlock(blockNumber);
+                if (fetched == null) {
+                    return;
+                }
+                if (!blockWriterService.enqueue(fetched, generation)) {
+                    log.info("Writer queue was reset, stopping fetch at block {}", blockNumber);
+                    return;
+                }
             }
 
-            log.info("Successfully synced blocks from {} to {}", syncFromBlockNumber, syncToBlockNumber);
+            log.info("Fetched blocks from {} to {}", syncFromBlockNumber, syncToBlockNumber);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("Error syncing blocks", e);
         } finally {
@@ -133,179 +193,118 @@ public class BlockSyncService {
     }
 
     /**
-     * 同步单个区块及其交易
+     * 抓取单个区块、交易及涉及账户的状态
+     *
+     * @return 链上还没有该区块时返回null
      */
-    @Transactional
-    @SuppressWarnings({ "unchecked", "unused" })
-    public void syncBlock(BigInteger blockNumber) {
-        try {
-            // 检查区块是否已存在
-            if (blockRepository.existsByBlockNumber(blockNumber)) {
-                log.debug("Block {} already exists, skipping", blockNumber);
-                return;
-            }
+    private FetchedBlock fetchBlock(BigInteger blockNumber) throws IOException {
+        long start = System.nanoTime();
 
-            // 从链上获取扩展区块数据（包含自定义字段）
-            ExtendedBlockData extendedBlock = extendedBlockService.getExtendedBlock(blockNumber, true);
+        // 从链上获取扩展区块数据（包含自定义字段）
+        ExtendedBlockData extendedBlock = extendedBlockService.getExtendedBlock(blockNumber, true);
 
-            if (extendedBlock == null) {
-                log.warn("Block {} not found on chain", blockNumber);
-                return;
-            }
+        if (extendedBlock == null) {
+            log.warn("Block {} not found on chain", blockNumber);
+            return null;
+        }
 
-            // 保存区块（包含自定义字段）
-            Block block = convertToBlockEntity(extendedBlock);
-            Block savedBlock = blockRepository.save(block);
-            log.info("Saved block {}", blockNumber);
-
-            // 同时获取标准区块数据用于交易处理
-            EthBlock.Block ethBlock = web3j.ethGetBlockByNumber(
-                    DefaultBlockParameter.valueOf(blockNumber),
-                    true).send().getBlock();
-
-            // 保存交易
-            Set<String> addressesInBlock = new HashSet<>();
-            if (ethBlock.getTransactions() != null && !ethBlock.getTransactions().isEmpty()) {
-                for (EthBlock.TransactionResult<EthBlock.TransactionObject> txResult : ethBlock.getTransactions()) {
-                    EthBlock.TransactionObject txObject = txResult.get();
-                    Transaction transaction = convertToTransactionEntity(txObject, ethBlock.getTimestamp());
-
-                    // Null safety check before saving
-                    if (transaction != null) {
-                        transactionRepository.save(transaction);
-
-                        // 收集涉及的地址
-                        addressesInBlock.add(transaction.getFromAddress());
-                        if (transaction.getToAddress() != null) {
-                            addressesInBlock.add(transaction.getToAddress());
-                        }
+        // 同时获取标准区块数据用于交易处理
+        EthBlock.Block ethBlock = web3j.ethGetBlockByNumber(
+                DefaultBlockParameter.valueOf(blockNumber),
+                true).send().getBlock();
+
+        // 转换区块（包含自定义字段）和交易
+        Block block = blockConverter.convertToBlockEntity(extendedBlock);
+        Set<String> addressesInBlock = new LinkedHashSet<>();
+        Set<String> createdContracts = new HashSet<>();
+        List<Transaction> transactions = new ArrayList<>();
+        if (ethBlock.getTransactions() != null) {
+            for (EthBlock.TransactionResult<EthBlock.TransactionObject> txResult : ethBlock.getTransactions()) {
+                EthBlock.TransactionObject txObject = txResult.get();
+                Transaction transaction = blockConverter.convertToTransactionEntity(txObject,
+                        ethBlock.getTimestamp());
+
+                // Null safety check before saving
+                if (transaction != null) {
+                    transactions.add(transaction);
+
+                    // 收集涉及的地址
+                    addressesInBlock.add(transaction.getFromAddress());
+                    if (transaction.getToAddress() != null) {
+                        addressesInBlock.add(transaction.getToAddress());
                     } else {
-                        log.warn("Failed to convert transaction {}", txObject.getHash());
+                        // 合约创建交易：由 from + nonce 计算新合约地址
+                        String contractAddress = ContractRegistryService.createdAddress(transaction);
+                        if (contractAddress != null) {
+                            addressesInBlock.add(contractAddress);
+                            createdContracts.add(contractAddress);
+                        }
                     }
+                } else {
+                    log.warn("Failed to convert transaction {}", txObject.getHash());
                 }
-                log.info("Saved {} transactions from block {}", ethBlock.getTransactions().size(), blockNumber);
             }
-
-            // 更新涉及地址的账户状态
-            updateAccountStates(addressesInBlock);
-
-        } catch (IOException e) {
-            log.error("Error syncing block {}", blockNumber, e);
-            throw new RuntimeException("Failed to sync block " + blockNumber, e);
         }
+
+        // 识别账户类型放在抓取阶段，写入阶段只执行幂等写入
+        List<AccountState> accounts = fetchAccountStates(addressesInBlock);
+        FetchedBlock fetched = new FetchedBlock();
+        fetched.setBlock(block);
+        fetched.setTransactions(transactions);
+        fetched.setAccounts(accounts);
+        fetched.setCreatedContracts(createdContracts);
+        fetched.setContractCodes(contractRegistryService.classify(accounts, createdContracts, blockNumber));
+
+        fetchNanos.addAndGet(System.nanoTime() - start);
+        blocksFetched.incrementAndGet();
+        transactionsFetched.addAndGet(transactions.size());
+        lastFetchedBlock = blockNumber.longValue();
+        return fetched;
     }
 
     /**
-     * 更新账户状态（包括自定义字段）
+     * 获取涉及地址的账户状态（包括自定义字段），单个地址失败时跳过
+     * 读取 latest 状态：追赶历史时直接得到最终状态，不要求节点保留历史状态
      */
-    private void updateAccountStates(Set<String> addresses) {
+    private List<AccountState> fetchAccountStates(Set<String> addresses) {
+        List<AccountState> accounts = new ArrayList<>(addresses.size());
         for (String address : addresses) {
             try {
                 // 获取余额
                 EthGetBalance balanceResponse = web3j.ethGetBalance(
                         address,
                         DefaultBlockParameter.valueOf("latest")).send();
-                BigInteger balance = balanceResponse.getBalance();
-
-                // 获取自定义字段：安全级别
-                BigInteger securityLevel = customRpcService.getSecurityLevel(address);
-
-                // 更新或创建账户状态
-                AccountState accountState = accountStateRepository.findByAddress(address)
-                        .orElse(new AccountState());
 
+                AccountState accountState = new AccountState();
                 accountState.setAddress(address);
-                accountState.setBalance(balance);
-                accountState.setSecurityLevel(securityLevel);
-                accountState.setLastUpdated(LocalDateTime.now());
+                accountState.setBalance(balanceResponse.getBalance());
 
-                accountStateRepository.save(accountState);
+                // 获取自定义字段：安全级别（不与接口查询合并，避免读到出块前的状态）
+                accountState.setSecurityLevel(customRpcService.getLatestSecurityLevel(address));
 
-                log.debug("Updated account state for {}: balance={}, securityLevel={}",
-                        address, balance, securityLevel);
+                // 排行榜所需字段：质押金额、交易总价值
+                accountState.setPledgeAmount(extendedAccountService.getLatestPledgeAmount(address));
+                accountState.setTotalValueTx(extendedAccountService.getLatestTotalValueTx(address));
+                accounts.add(accountState);
 
             } catch (Exception e) {
-                log.error("Error updating account state for {}", address, e);
+                log.error("Error fetching account state for {}", address, e);
             }
         }
+        return accounts;
     }
 
     /**
-     * 转换扩展区块数据（包含所有自定义字段）
-     */
-    private Block convertToBlockEntity(ExtendedBlockData extendedBlock) {
-        Block block = new Block();
-
-        // 基础字段
-        block.setBlockNumber(ExtendedBlockData.toBigInteger(extendedBlock.getNumber()));
-        block.setBlockHash(extendedBlock.getHash());
-        block.setParentHash(extendedBlock.getParentHash());
-        block.setTimestamp(convertTimestamp(ExtendedBlockData.toBigInteger(extendedBlock.getTime())));
-        block.setMiner(extendedBlock.getCoinbase());
-        block.setGasUsed(ExtendedBlockData.toBigInteger(extendedBlock.getGasUsed()));
-        block.setGasLimit(ExtendedBlockData.toBigInteger(extendedBlock.getGasLimit()));
-        block.setDifficulty(ExtendedBlockData.toBigInteger(extendedBlock.getDifficulty()));
-        block.setNonce(ExtendedBlockData.toBigInteger(extendedBlock.getNonce()));
-
-        // 交易数量（从 transactions 字段获取）
-        if (extendedBlock.getTransactions() instanceof java.util.List) {
-            block.setTransactionCount(((java.util.List<?>) extendedBlock.getTransactions()).size());
-        } else {
-            block.setTransactionCount(0);
-        }
-
-        // ===== 私链自定义字段 =====
-
-        // 随机数相关
-        block.setRandomNumber(extendedBlock.getRandomNumber());
-        block.setRandomRoot(extendedBlock.getRandomRoot());
-
-        // PoW 相关
-        block.setPowDifficulty(ExtendedBlockData.toBigInteger(extendedBlock.getPowDifficulty()));
-        block.setPowGas(ExtendedBlockData.toBigInteger(extendedBlock.getPowGas()));
-        block.setPowPrice(ExtendedBlockData.toBigInteger(extendedBlock.getPowPrice()));
-
-        // PoS 相关
-        block.setPosLeader(extendedBlock.getPosLeader());
-        block.setPosVoting(extendedBlock.getPosVoting());
-
-        // Commit 和污点交易
-        block.setCommitTxLength(ExtendedBlockData.toBigInteger(extendedBlock.getCommitTxLength()));
-        block.setTainted(extendedBlock.getTainted());
-
-        // 激励和费用
-        block.setIncentive(ExtendedBlockData.toBigInteger(extendedBlock.getIncentive()));
-        block.setBaseFee(ExtendedBlockData.toBigInteger(extendedBlock.getBaseFee()));
-
-        return block;
-    }
-
-    /**
-     * 转换交易数据
-     */
-    private Transaction convertToTransactionEntity(EthBlock.TransactionObject txObject, BigInteger blockTimestamp) {
-        Transaction transaction = new Transaction();
-        transaction.setTxHash(txObject.getHash());
-        transaction.setBlockNumber(txObject.getBlockNumber());
-        transaction.setBlockHash(txObject.getBlockHash());
-        transaction.setTransactionIndex(txObject.getTransactionIndex().intValue());
-        transaction.setFromAddress(txObject.getFrom());
-        transaction.setToAddress(txObject.getTo());
-        transaction.setValue(txObject.getValue());
-        transaction.setGasPrice(txObject.getGasPrice());
-        transaction.setGas(txObject.getGas());
-        transaction.setInput(txObject.getInput());
-        transaction.setNonce(txObject.getNonce());
-        transaction.setTimestamp(convertTimestamp(blockTimestamp));
-        return transaction;
-    }
-
-    /**
-     * 转换时间戳
+     * 抓取阶段指标
      */
-    private LocalDateTime convertTimestamp(BigInteger timestamp) {
-        return LocalDateTime.ofInstant(
-                Instant.ofEpochSecond(timestamp.longValue()),
-                ZoneId.systemDefault());
+    public Map<String, Object> getStatus() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning);
+        status.put("blocksFetched", blocksFetched.get());
+        status.put("transactionsFetched", transactionsFetched.get());
+        status.put("lastFetchedBlock", lastFetchedBlock);
+        status.put("busyRatio", (double) fetchNanos.get() / elapsedNanos);
+        return status;
     }
 }
@@ -0,0 +1,485 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.dto.FetchedBlock;
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.AccountStateRepository;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 区块写入服务（同步流水线的写入阶段）
+ * <p>
+ * {@link BlockSyncService} 抓取区块后放入有界队列，本服务的专用线程取出已就绪的区块成批入库，
+ * 抓取（等待RPC）和入库（等待数据库）因此可以重叠进行。队列满时抓取阶段阻塞，实现背压。
+ * <p>
+ * 组提交：一个窗口内的多个区块连同交易、账户状态在同一个数据库事务中写入，只提交（fsync）一次。
+ * 窗口在达到 commit-max-blocks 个区块、commit-max-transactions 笔交易或等待 commit-max-wait-ms 后关闭。
+ * 窗口写入失败时整体回滚并清空队列，抓取阶段从窗口的第一个区块重新开始，区块始终连续入库。
+ * 内存统计在事务提交后才更新，回滚不会重复计数。同时负责从数据库重放其他节点写入的区块。
+ */
+@Slf4j
+@Service
+public class BlockWriterService {
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountStateRepository accountStateRepository;
+
+    @Autowired
+    private AccountLeaderboardService accountLeaderboardService;
+
+    @Autowired
+    private FeeOracleService feeOracleService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ValidatorStatsService validatorStatsService;
+
+    @Autowired
+    private TaintRegistryService taintRegistryService;
+
+    @Autowired
+    private TxTypeStatsService txTypeStatsService;
+
+    @Autowired
+    private PendingTransactionService pendingTransactionService;
+
+    @Autowired
+    private ContractRegistryService contractRegistryService;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 抓取与写入之间的队列容量（区块数）
+     */
+    @Value("${blockchain.sync.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * 每个提交窗口的最大区块数
+     */
+    @Value("${blockchain.sync.commit-max-blocks:32}")
+    private int commitMaxBlocks;
+
+    /**
+     * 每个提交窗口的最大交易数，限制单个事务的大小
+     */
+    @Value("${blockchain.sync.commit-max-transactions:20000}")
+    private int commitMaxTransactions;
+
+    /**
+     * 窗口内第一个区块最多等待多久（毫秒）再提交，0表示只合并已就绪的区块
+     */
+    @Value("${blockchain.sync.commit-max-wait-ms:50}")
+    private long commitMaxWaitMs;
+
+    @Value("${blockchain.sync.batch-size}")
+    private int batchSize;
+
+    private BlockingQueue<FetchedBlock> queue;
+    private Thread writerThread;
+
+    /**
+     * 写入与重放互斥，保证每个区块只通知内存统计一次
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * 队列被清空时加一，抓取阶段据此放弃本轮已抓取的区块
+     */
+    private volatile int generation = 0;
+
+    /**
+     * 最后放入队列的区块号，-1表示从数据库最新区块之后开始
+     */
+    private volatile long lastEnqueued = -1;
+
+    /**
+     * 下一个应写入的区块号，-1表示按数据库最新区块确定
+     */
+    private long nextExpected = -1;
+
+    /**
+     * 本节点内存统计已处理到的区块号（本节点写入或从数据库重放）
+     */
+    private volatile BigInteger lastProcessedBlock;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong blocksWritten = new AtomicLong();
+    private final AtomicLong transactionsWritten = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong blocksDropped = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong backpressureNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        // 各内存统计启动时已从数据库初始化，只需重放此后写入的区块
+        BigInteger dbLatestBlockNumber = blockRepository.findMaxBlockNumber();
+        lastProcessedBlock = dbLatestBlockNumber != null ? dbLatestBlockNumber : BigInteger.valueOf(-1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writerThread = new Thread(this::run, "block-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Block writer started (queue capacity {}, commit window {} blocks / {} transactions / {} ms)",
+                queueCapacity, commitMaxBlocks, commitMaxTransactions, commitMaxWaitMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 最后放入队列的区块号，-1表示队列已重置，抓取阶段应从数据库最新区块之后开始
+     */
+    public long getLastEnqueued() {
+        return lastEnqueued;
+    }
+
+    /**
+     * 放入写入队列，队列满时阻塞（背压）
+     *
+     * @param expectedGeneration 抓取开始时的 {@link #getGeneration()}
+     * @return 队列在此期间被重置时返回false，抓取阶段应停止本轮
+     */
+    public boolean enqueue(FetchedBlock fetched, int expectedGeneration) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            while (generation == expectedGeneration) {
+                if (queue.offer(fetched, 200, TimeUnit.MILLISECONDS)) {
+                    synchronized (this) {
+                        if (generation != expectedGeneration) {
+                            return false;
+                        }
+                        lastEnqueued = fetched.getBlock().getBlockNumber().longValue();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            backpressureNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void run() {
+        List<FetchedBlock> window = new ArrayList<>(commitMaxBlocks);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                collectWindow(window);
+                long start = System.nanoTime();
+                synchronized (writeLock) {
+                    writeWindow(window);
+                }
+                writeNanos.addAndGet(System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Unexpected error in block writer", e);
+            } finally {
+                window.clear();
+            }
+        }
+        log.info("Block writer stopped");
+    }
+
+    /**
+     * 等待第一个区块，然后在 commit-max-wait-ms 内继续收集，直到区块数或交易数达到上限
+     */
+    private void collectWindow(List<FetchedBlock> window) throws InterruptedException {
+        FetchedBlock first = queue.take();
+        window.add(first);
+        long transactions = first.getTransactions().size();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(commitMaxWaitMs);
+        while (window.size() < commitMaxBlocks && transactions < commitMaxTransactions) {
+            long remaining = deadline - System.nanoTime();
+            FetchedBlock next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            window.add(next);
+            transactions += next.getTransactions().size();
+        }
+    }
+
+    /**
+     * 在一个事务中按顺序写入窗口内的区块，不连续的区块（队列重置前抓取的）直接丢弃
+     */
+    private void writeWindow(List<FetchedBlock> window) {
+        if (!leaderElectionService.isLeader()) {
+            log.warn("Lost sync leadership, discarding {} queued blocks", queue.size() + window.size());
+            reset(-1);
+            return;
+        }
+        if (nextExpected < 0) {
+            BigInteger dbLatestBlockNumber = blockRepository.findMaxBlockNumber();
+            nextExpected = dbLatestBlockNumber != null ? dbLatestBlockNumber.longValue() + 1
+                    : window.get(0).getBlock().getBlockNumber().longValue();
+        }
+
+        List<FetchedBlock> contiguous = new ArrayList<>(window.size());
+        long expected = nextExpected;
+        for (FetchedBlock fetched : window) {
+            if (fetched.getBlock().getBlockNumber().longValue() == expected) {
+                contiguous.add(fetched);
+                expected++;
+            } else {
+                blocksDropped.incrementAndGet();
+            }
+        }
+        if (contiguous.isEmpty()) {
+            return;
+        }
+
+        long firstBlock = nextExpected;
+        List<WrittenBlock> written = new ArrayList<>(contiguous.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (FetchedBlock fetched : contiguous) {
+                    written.add(writeBlock(fetched));
+                }
+            });
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.error("Error writing blocks {}-{}, restarting sync from {}", firstBlock, expected - 1, firstBlock, e);
+            reset(firstBlock);
+            return;
+        }
+        commits.incrementAndGet();
+        nextExpected = expected;
+
+        // 提交成功后再更新内存统计
+        for (WrittenBlock block : written) {
+            if (block.transactions == null) {
+                // 其他节点已写入（如租约切换前后），按重放处理
+                blockRepository.findByBlockNumber(block.block.getBlockNumber()).ifPresent(this::replayBlock);
+                continue;
+            }
+            txTypeStatsService.onCommitted(block.transactions);
+            taintRegistryService.onCommitted(block.taintedBlocks);
+            afterBlockPersisted(block.block, block.transactions);
+            contractRegistryService.onCommitted(block.accounts);
+            for (AccountState accountState : block.accounts) {
+                accountLeaderboardService.onAccountUpdated(accountState);
+            }
+            lastProcessedBlock = block.block.getBlockNumber();
+            blocksWritten.incrementAndGet();
+            transactionsWritten.addAndGet(block.transactions.size());
+        }
+        log.info("Committed blocks {}-{} in one transaction", firstBlock, expected - 1);
+    }
+
+    /**
+     * 清空队列并让抓取阶段从指定区块重新开始
+     *
+     * @param resumeFrom 下一个写入的区块号，-1表示按数据库最新区块确定
+     */
+    private synchronized void reset(long resumeFrom) {
+        generation++;
+        blocksDropped.addAndGet(queue.size());
+        queue.clear();
+        nextExpected = resumeFrom;
+        lastEnqueued = resumeFrom < 0 ? -1 : resumeFrom - 1;
+    }
+
+    /**
+     * 在当前事务中写入单个区块及其交易、账户状态
+     * 全部使用幂等语句，不预先查询区块或账户是否存在
+     *
+     * @return 区块已存在时 transactions 为null
+     */
+    private WrittenBlock writeBlock(FetchedBlock fetched) {
+        Block block = fetched.getBlock();
+        BigInteger blockNumber = block.getBlockNumber();
+
+        // 先登记到搜索索引再写库，保证过滤器不会对已入库数据判定为不存在
+        List<Transaction> transactions = fetched.getTransactions();
+        searchIndexService.register(block, transactions);
+
+        // 保存区块，区块号已存在（其他节点或上次运行已写入）时跳过整个区块
+        if (!blockBulkRepository.insertBlockIfAbsent(block)) {
+            log.debug("Block {} already exists, skipping", blockNumber);
+            return new WrittenBlock(block, null, null, Set.of());
+        }
+        log.debug("Saved block {}", blockNumber);
+
+        // 保存交易
+        if (!transactions.isEmpty()) {
+            blockBulkRepository.insertTransactionsIfAbsent(transactions);
+        }
+
+        // 解析PoS投票并更新验证者统计
+        validatorStatsService.onBlock(block);
+
+        // 解析污点交易标记
+        Set<BigInteger> taintedBlocks = taintRegistryService.onBlock(block, transactions);
+
+        // 更新交易类型日汇总
+        txTypeStatsService.onBlock(block, transactions);
+
+        // 保存新合约字节码并更新涉及地址的账户状态
+        if (fetched.getContractCodes() != null && !fetched.getContractCodes().isEmpty()) {
+            blockBulkRepository.insertContractCodesIfAbsent(fetched.getContractCodes());
+        }
+        List<AccountState> accounts = fetched.getAccounts();
+        if (!accounts.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (AccountState accountState : accounts) {
+                accountState.setLastUpdated(now);
+            }
+            blockBulkRepository.upsertAccountStates(accounts);
+            log.debug("Updated {} account states in block {}", accounts.size(), blockNumber);
+        }
+        return new WrittenBlock(block, transactions, accounts, taintedBlocks);
+    }
+
+    /**
+     * 区块及其交易入库后，通知依赖同步流的内存统计
+     */
+    private void afterBlockPersisted(Block block, List<Transaction> transactions) {
+        feeOracleService.onBlock(block, transactions);
+        pendingTransactionService.onBlock(transactions);
+    }
+
+    /**
+     * 重放数据库中本节点尚未处理的区块（跟随节点，或刚接任的领导节点）
+     */
+    public void replayFromDatabase() {
+        synchronized (writeLock) {
+            replay();
+        }
+    }
+
+    /**
+     * 只更新内存统计和索引，不写库（调用方持有 writeLock）
+     */
+    private void replay() {
+        while (true) {
+            List<Block> blocks = blockRepository.findByBlockNumberGreaterThanOrderByBlockNumberAsc(
+                    lastProcessedBlock, PageRequest.of(0, batchSize));
+            if (blocks.isEmpty()) {
+                return;
+            }
+            for (Block block : blocks) {
+                replayBlock(block);
+            }
+            log.debug("Replayed blocks up to {} from database", lastProcessedBlock);
+        }
+    }
+
+    private void replayBlock(Block block) {
+        List<Transaction> transactions = transactionRepository
+                .findByBlockNumberOrderByTransactionIndexAsc(block.getBlockNumber());
+        searchIndexService.register(block, transactions);
+        taintRegistryService.onReplicatedBlock(block, transactions);
+        txTypeStatsService.onCommitted(transactions);
+        afterBlockPersisted(block, transactions);
+
+        Set<String> addresses = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            addresses.add(transaction.getFromAddress());
+            addresses.add(transaction.getToAddress() != null ? transaction.getToAddress()
+                    : ContractRegistryService.createdAddress(transaction));
+        }
+        addresses.remove(null);
+        for (String address : addresses) {
+            accountStateRepository.findByAddress(address)
+                    .ifPresent(accountLeaderboardService::onAccountUpdated);
+        }
+        if (block.getBlockNumber().compareTo(lastProcessedBlock) > 0) {
+            lastProcessedBlock = block.getBlockNumber();
+        }
+    }
+
+    /**
+     * 写入阶段指标
+     */
+    public Map<String, Object> getStatus() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        long commitCount = commits.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("queueDepth", queue.size());
+        status.put("queueCapacity", queueCapacity);
+        status.put("queueOccupancy", (double) queue.size() / queueCapacity);
+        status.put("blocksWritten", blocksWritten.get());
+        status.put("transactionsWritten", transactionsWritten.get());
+        status.put("commits", commitCount);
+        status.put("avgBlocksPerCommit", commitCount == 0 ? 0 : (double) blocksWritten.get() / commitCount);
+        status.put("blocksDropped", blocksDropped.get());
+        status.put("failures", failures.get());
+        status.put("lastProcessedBlock", lastProcessedBlock);
+        status.put("busyRatio", (double) writeNanos.get() / elapsedNanos);
+        status.put("backpressureMillis", TimeUnit.NANOSECONDS.toMillis(backpressureNanos.get()));
+        return status;
+    }
+
+    /**
+     * 已写入（未提交）的区块，提交后用于更新内存统计
+     */
+    private static class WrittenBlock {
+        private final Block block;
+        private final List<Transaction> transactions;
+        private final List<AccountState> accounts;
+        private final Set<BigInteger> taintedBlocks;
+
+        WrittenBlock(Block block, List<Transaction> transactions, List<AccountState> accounts,
+                Set<BigInteger> taintedBlocks) {
+            this.block = block;
+            this.transactions = transactions;
+            this.accounts = accounts;
+            this.taintedBlocks = taintedBlocks;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.entity.ContractCode;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.AccountStateRepository;
+import com.blockchain.explorer.repository.ContractCodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.web3j.crypto.ContractUtils;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 合约登记服务
+ * <p>
+ * 同步抓取时对未识别过的地址（含合约创建交易生成的地址）调用一次 eth_getCode，
+ * 把结果写入 account_states.is_contract / code_hash，字节码按 keccak256 去重保存到 contract_codes，
+ * 克隆合约只占一行。接口判断是否为合约时依次查内存中的合约地址集合和账户表，
+ * 只有尚未同步到的地址才兜底调用节点，结果放入有界缓存。
+ */
+@Slf4j
+@Service
+public class ContractRegistryService {
+
+    private static final String EMPTY_CODE = "0x";
+
+    @Autowired
+    private Web3j web3j;
+
+    @Autowired
+    private AccountStateRepository accountStateRepository;
+
+    @Autowired
+    private ContractCodeRepository contractCodeRepository;
+
+    @Autowired
+    private HistoricalStateCache historicalStateCache;
+
+    @Value("${blockchain.contracts.unknown-cache-size:10000}")
+    private int unknownCacheSize;
+
+    /**
+     * 已识别的合约地址（小写）
+     */
+    private final Set<String> contracts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 本次运行已提交的代码哈希，避免重复写入 contract_codes（只在写入事务提交后登记）
+     */
+    private final Set<String> knownCodeHashes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 未入库地址的兜底判定结果（有界LRU）
+     */
+    private Map<String, Boolean> unknownCache;
+
+    @PostConstruct
+    public void init() {
+        unknownCache = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > unknownCacheSize;
+            }
+        };
+        for (String address : accountStateRepository.findContractAddresses()) {
+            contracts.add(normalize(address));
+        }
+        log.info("Contract registry loaded {} contract addresses", contracts.size());
+    }
+
+    /**
+     * 合约创建交易生成的合约地址，非创建交易返回null
+     */
+    public static String createdAddress(Transaction transaction) {
+        if (transaction.getToAddress() != null || transaction.getFromAddress() == null
+                || transaction.getNonce() == null) {
+            return null;
+        }
+        return normalize(ContractUtils.generateContractAddress(transaction.getFromAddress(), transaction.getNonce()));
+    }
+
+    /**
+     * 抓取阶段识别账户类型：只对未识别过的账户（以及本区块的合约创建地址）查询一次代码，
+     * 结果写入 isContract / codeHash，未识别的留空（写库时保留原值）
+     *
+     * @param createdContracts 本区块内的合约创建地址，需要重新识别（如 CREATE2 重新部署）
+     * @return 尚未提交过的字节码，由写入阶段按代码哈希去重保存（丢弃的抓取结果不影响之后的区块）
+     */
+    public List<ContractCode> classify(List<AccountState> accounts, Set<String> createdContracts,
+            BigInteger blockNumber) {
+        List<String> candidates = new ArrayList<>();
+        for (AccountState account : accounts) {
+            String address = normalize(account.getAddress());
+            if (!contracts.contains(address) && !createdContracts.contains(address)) {
+                candidates.add(account.getAddress());
+            }
+        }
+        Set<String> classified = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            for (String address : accountStateRepository.findClassifiedAddresses(candidates)) {
+                classified.add(normalize(address));
+            }
+        }
+
+        List<ContractCode> codes = new ArrayList<>();
+        Set<String> emitted = new HashSet<>();
+        for (AccountState account : accounts) {
+            String address = normalize(account.getAddress());
+            if (!createdContracts.contains(address)
+                    && (contracts.contains(address) || classified.contains(address))) {
+                continue;
+            }
+            String code;
+            try {
+                code = web3j.ethGetCode(address, DefaultBlockParameter.valueOf("latest")).send().getCode();
+            } catch (IOException e) {
+                // 留空，下次出现时再识别
+                log.warn("Failed to get code of {}: {}", address, e.getMessage());
+                continue;
+            }
+            if (code == null || EMPTY_CODE.equals(code)) {
+                account.setIsContract(false);
+                continue;
+            }
+
+            String codeHash = Hash.sha3(code);
+            account.setIsContract(true);
+            account.setCodeHash(codeHash);
+            if (!knownCodeHashes.contains(codeHash) && emitted.add(codeHash)) {
+                ContractCode contractCode = new ContractCode();
+                contractCode.setCodeHash(codeHash);
+                contractCode.setBytecode(code);
+                contractCode.setCodeSize((code.length() - 2) / 2);
+                contractCode.setFirstSeenBlock(blockNumber);
+                codes.add(contractCode);
+                log.debug("New bytecode {} ({} bytes) first seen at {}", codeHash, contractCode.getCodeSize(),
+                        address);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * 账户状态及字节码提交后调用，登记新识别的合约地址和已保存的代码哈希
+     */
+    public void onCommitted(List<AccountState> accounts) {
+        for (AccountState account : accounts) {
+            if (Boolean.TRUE.equals(account.getIsContract())) {
+                String address = normalize(account.getAddress());
+                contracts.add(address);
+                if (account.getCodeHash() != null) {
+                    knownCodeHashes.add(account.getCodeHash());
+                }
+                synchronized (unknownCache) {
+                    unknownCache.remove(address);
+                }
+            }
+        }
+    }
+
+    /**
+     * 是否为合约账户：内存集合 -> 账户表 -> 兜底调用节点
+     */
+    public boolean isContract(String address) {
+        String normalized = normalize(address);
+        if (normalized == null) {
+            return false;
+        }
+        if (contracts.contains(normalized)) {
+            return true;
+        }
+
+        Optional<AccountState> accountState = accountStateRepository.findByAddress(address);
+        if (accountState.isPresent() && accountState.get().getIsContract() != null) {
+            return accountState.get().getIsContract();
+        }
+
+        synchronized (unknownCache) {
+            Boolean cached = unknownCache.get(normalized);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try {
+            String code = web3j.ethGetCode(address, DefaultBlockParameter.valueOf("latest")).send().getCode();
+            boolean contract = code != null && !EMPTY_CODE.equals(code);
+            synchronized (unknownCache) {
+                unknownCache.put(normalized, contract);
+            }
+            return contract;
+        } catch (Exception e) {
+            log.error("Error checking if address {} is contract", address, e);
+            return false;
+        }
+    }
+
+    /**
+     * 指定高度是否为合约账户：当前不是合约的直接返回false；是合约的按该高度的代码判断（部署之前不是合约），
+     * 不可变高度的结果缓存在 {@link HistoricalStateCache}
+     *
+     * @param blockNumber 区块高度，null 表示最新状态
+     */
+    public boolean isContract(String address, BigInteger blockNumber) {
+        if (!isContract(address)) {
+            return false;
+        }
+        if (blockNumber == null) {
+            return true;
+        }
+        String cached = historicalStateCache.get("isContract", address, blockNumber);
+        if (cached != null) {
+            return Boolean.parseBoolean(cached);
+        }
+        try {
+            String code = web3j.ethGetCode(address, HistoricalStateCache.toParameter(blockNumber)).send().getCode();
+            boolean contract = code != null && !EMPTY_CODE.equals(code);
+            historicalStateCache.put("isContract", address, blockNumber, Boolean.toString(contract));
+            return contract;
+        } catch (IOException e) {
+            // 节点不可用时按当前状态返回
+            log.warn("Failed to get code of {} at block {}: {}", address, blockNumber, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 按代码哈希查询字节码
+     */
+    public Optional<ContractCode> getCode(String codeHash) {
+        return contractCodeRepository.findByCodeHash(normalize(codeHash));
+    }
+
+    /**
+     * 已识别的合约数
+     */
+    public int getContractCount() {
+        return contracts.size();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,8 @@
 package com.blockchain.explorer.service;
 
 import com.blockchain.explorer.dto.EthGetSecurityLevel;
+import com.blockchain.explorer.util.HexQuantity;
+import com.blockchain.explorer.util.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,12 @@ public class CustomRpcService {
     @Autowired
     private Web3j web3j;
 
+    @Autowired
+    private HistoricalStateCache historicalStateCache;
+
+    @Autowired
+    private SingleFlight rpcSingleFlight;
+
     /**
      * 获取Web3jService实例
      */
@@ -38,35 +46,80 @@ public class CustomRpcService {
     }
 
     /**
-     * 获取账户的安全级别（私链自定义方法）
+     * 获取账户最新的安全级别（私链自定义方法）
      * 
      * @param address 账户地址
      * @return 安全级别
      */
     public BigInteger getSecurityLevel(String address) {
-        try {
-            Request<?, EthGetSecurityLevel> request = new Request<>(
-                    "eth_getSecurityLevel", // 自定义RPC方法名
-                    Arrays.asList(address, "latest"), // 参数列表：地址 + 区块参数
-                    getWeb3jService(),
-                    EthGetSecurityLevel.class);
+        return getSecurityLevel(address, null);
+    }
 
-            EthGetSecurityLevel response = request.send();
+    /**
+     * 获取账户在指定高度的安全级别，不可变高度的结果缓存在 {@link HistoricalStateCache}，相同的并发查询合并为一次
+     * 
+     * @param address     账户地址
+     * @param blockNumber 区块高度，null 表示 latest
+     * @return 安全级别
+     */
+    public BigInteger getSecurityLevel(String address, BigInteger blockNumber) {
+        String cached = historicalStateCache.get("eth_getSecurityLevel", address, blockNumber);
+        if (cached != null) {
+            return HexQuantity.toBigInteger(cached);
+        }
+        try {
+            String result = rpcSingleFlight.execute(
+                    ExtendedAccountService.flightKey("eth_getSecurityLevel", address, blockNumber), () -> {
+                        String value = requestSecurityLevel(address, blockNumber);
+                        historicalStateCache.put("eth_getSecurityLevel", address, blockNumber, value);
+                        return value;
+                    });
 
-            if (response.hasError()) {
-                log.error("Failed to get security level for address {}: {}",
-                        address, response.getError().getMessage());
-                return BigInteger.ZERO;
-            }
+            return result == null ? BigInteger.ZERO : HexQuantity.toBigInteger(result);
 
-            return response.getSecurityLevel();
+        } catch (IOException e) {
+            log.error("Error calling eth_getSecurityLevel for address {}", address, e);
+            return BigInteger.ZERO;
+        }
+    }
 
+    /**
+     * 同步使用：直接读取最新的安全级别，不查缓存、不与接口查询合并
+     * （合并可能共享区块出块之前发起的查询，把旧状态写入 account_states）
+     */
+    public BigInteger getLatestSecurityLevel(String address) {
+        try {
+            String result = requestSecurityLevel(address, null);
+            return result == null ? BigInteger.ZERO : HexQuantity.toBigInteger(result);
         } catch (IOException e) {
             log.error("Error calling eth_getSecurityLevel for address {}", address, e);
             return BigInteger.ZERO;
         }
     }
 
+    /**
+     * 发送 eth_getSecurityLevel 请求
+     *
+     * @return 节点报错时返回null
+     */
+    private String requestSecurityLevel(String address, BigInteger blockNumber) throws IOException {
+        Request<?, EthGetSecurityLevel> request = new Request<>(
+                "eth_getSecurityLevel", // 自定义RPC方法名
+                // 参数列表：地址 + 区块参数
+                Arrays.asList(address, HistoricalStateCache.toTag(blockNumber)),
+                getWeb3jService(),
+                EthGetSecurityLevel.class);
+
+        EthGetSecurityLevel response = request.send();
+
+        if (response.hasError()) {
+            log.error("Failed to get security level for address {}: {}",
+                    address, response.getError().getMessage());
+            return null;
+        }
+        return response.getResult();
+    }
+
     /**
      * 示例：添加更多自定义RPC方法
      * 
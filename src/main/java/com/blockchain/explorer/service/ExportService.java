@@ -0,0 +1,264 @@
+package com.blockchain.explorer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导出服务
+ * 使用只读前向游标逐行读取并直接写出，内存占用与导出范围无关
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String[][] BLOCK_COLUMNS = {
+            { "block_number", "blockNumber" },
+            { "block_hash", "blockHash" },
+            { "parent_hash", "parentHash" },
+            { "timestamp", "timestamp" },
+            { "miner", "miner" },
+            { "gas_used", "gasUsed" },
+            { "gas_limit", "gasLimit" },
+            { "difficulty", "difficulty" },
+            { "nonce", "nonce" },
+            { "transaction_count", "transactionCount" },
+            { "random_number", "randomNumber" },
+            { "random_root", "randomRoot" },
+            { "pow_difficulty", "powDifficulty" },
+            { "pow_gas", "powGas" },
+            { "pow_price", "powPrice" },
+            { "pos_leader", "posLeader" },
+            { "pos_voting", "posVoting" },
+            { "commit_tx_length", "commitTxLength" },
+            { "tainted", "tainted" },
+            { "incentive", "incentive" },
+            { "base_fee", "baseFee" }
+    };
+
+    private static final String[][] TRANSACTION_COLUMNS = {
+            { "tx_hash", "txHash" },
+            { "block_number", "blockNumber" },
+            { "block_hash", "blockHash" },
+            { "transaction_index", "transactionIndex" },
+            { "from_address", "fromAddress" },
+            { "to_address", "toAddress" },
+            { "value", "value" },
+            { "gas_price", "gasPrice" },
+            { "gas", "gas" },
+            { "gas_used", "gasUsed" },
+            { "input", "input" },
+            { "nonce", "nonce" },
+            { "status", "status" },
+            { "tx_type", "txType" },
+            { "timestamp", "timestamp" }
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 非MySQL数据库使用的游标批量大小（MySQL使用逐行流式读取）
+     */
+    @Value("${blockchain.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * 导出区块，按区块号升序
+     *
+     * @return 导出行数
+     */
+    public long exportBlocks(long fromBlock, long toBlock, Format format, OutputStream out) throws IOException {
+        String sql = "SELECT " + columnList(BLOCK_COLUMNS) + " FROM blocks"
+                + " WHERE block_number >= ? AND block_number <= ? ORDER BY block_number";
+        return export(sql, new Object[] { fromBlock, toBlock }, BLOCK_COLUMNS, format, out);
+    }
+
+    /**
+     * 导出交易，按 (区块号, 交易索引) 升序
+     *
+     * @param afterIndex 断点续传：跳过 fromBlock 中索引小于等于该值的交易，为null时从fromBlock开头导出
+     * @return 导出行数
+     */
+    public long exportTransactions(long fromBlock, Integer afterIndex, long toBlock, Format format,
+            OutputStream out) throws IOException {
+        String sql = "SELECT " + columnList(TRANSACTION_COLUMNS) + " FROM transactions"
+                + " WHERE block_number >= ? AND block_number <= ?"
+                + " AND (block_number > ? OR transaction_index > ?)"
+                + " ORDER BY block_number, transaction_index";
+        int skipUpTo = afterIndex == null ? -1 : afterIndex;
+        return export(sql, new Object[] { fromBlock, toBlock, fromBlock, skipUpTo }, TRANSACTION_COLUMNS, format,
+                out);
+    }
+
+    private long export(String sql, Object[] args, String[][] columns, Format format, OutputStream out)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        RowSink sink = format == Format.CSV ? new CsvSink(writer, columns) : new NdjsonSink(writer, columns);
+        long[] rows = { 0 };
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // MySQL驱动只有在 fetchSize=Integer.MIN_VALUE 时才逐行流式读取，否则会把整个结果集读入内存
+                boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+                statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    sink.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        sink.finish();
+        writer.flush();
+        return rows[0];
+    }
+
+    private static String columnList(String[][] columns) {
+        List<String> names = new ArrayList<>(columns.length);
+        for (String[] column : columns) {
+            names.add(column[0]);
+        }
+        return String.join(", ", names);
+    }
+
+    /**
+     * 数值统一输出为十进制字符串，避免大整数在JSON客户端中丢失精度
+     */
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+
+    private interface RowSink {
+        void write(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * 每行一个JSON对象
+     */
+    private static class NdjsonSink implements RowSink {
+        private final String[][] columns;
+        private final JsonGenerator generator;
+
+        NdjsonSink(Writer writer, String[][] columns) throws IOException {
+            this.columns = columns;
+            this.generator = new JsonFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 多个根对象之间默认以空格分隔，这里改由换行分隔
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeStringField(columns[i][1], format(rs.getObject(i + 1)));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * 带表头的CSV（RFC 4180 转义）
+     */
+    private static class CsvSink implements RowSink {
+        private final Writer writer;
+        private final String[][] columns;
+
+        CsvSink(Writer writer, String[][] columns) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns[i][1]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = format(rs.getObject(i + 1));
+                if (value != null) {
+                    writeEscaped(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.blockchain.explorer.service;
 
+import com.blockchain.explorer.util.HexQuantity;
+import com.blockchain.explorer.util.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -10,10 +12,13 @@ import org.web3j.protocol.core.Request;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Locale;
 
 /**
  * 扩展账户服务
  * 用于获取私链新增的账户相关字段
+ * 所有查询都指定区块高度（null 表示 latest），不可变高度的结果缓存在 {@link HistoricalStateCache}，
+ * 相同的并发查询通过 {@link SingleFlight} 共享一次节点调用
  */
 @Slf4j
 @Service
@@ -22,6 +27,12 @@ public class ExtendedAccountService {
     @Autowired
     private Web3j web3j;
 
+    @Autowired
+    private HistoricalStateCache historicalStateCache;
+
+    @Autowired
+    private SingleFlight rpcSingleFlight;
+
     /**
      * 获取Web3jService实例
      */
@@ -35,13 +46,47 @@ public class ExtendedAccountService {
         }
     }
 
+    // ===== 标准字段 =====
+
+    /**
+     * 获取余额
+     */
+    public BigInteger getBalance(String address, BigInteger blockNumber) throws IOException {
+        String cached = historicalStateCache.get("eth_getBalance", address, blockNumber);
+        if (cached != null) {
+            return new BigInteger(cached);
+        }
+        return rpcSingleFlight.execute(flightKey("eth_getBalance", address, blockNumber), () -> {
+            BigInteger balance = web3j.ethGetBalance(address, HistoricalStateCache.toParameter(blockNumber))
+                    .send().getBalance();
+            historicalStateCache.put("eth_getBalance", address, blockNumber, balance.toString());
+            return balance;
+        });
+    }
+
+    /**
+     * 获取Nonce
+     */
+    public BigInteger getNonce(String address, BigInteger blockNumber) throws IOException {
+        String cached = historicalStateCache.get("eth_getTransactionCount", address, blockNumber);
+        if (cached != null) {
+            return new BigInteger(cached);
+        }
+        return rpcSingleFlight.execute(flightKey("eth_getTransactionCount", address, blockNumber), () -> {
+            BigInteger nonce = web3j.ethGetTransactionCount(address, HistoricalStateCache.toParameter(blockNumber))
+                    .send().getTransactionCount();
+            historicalStateCache.put("eth_getTransactionCount", address, blockNumber, nonce.toString());
+            return nonce;
+        });
+    }
+
     // ===== 虚拟利息相关 =====
 
     /**
      * 获取账户利息
      */
-    public BigInteger getInterest(String address) {
-        return callBigIntegerMethod("eth_getInterest", address);
+    public BigInteger getInterest(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getInterest", address, blockNumber);
     }
 
     // ===== 后量子相关 =====
@@ -49,8 +94,8 @@ public class ExtendedAccountService {
     /**
      * 获取后量子计数器
      */
-    public BigInteger getPostQuanCounter(String address) {
-        return callBigIntegerMethod("eth_getPostQuanCounter", address);
+    public BigInteger getPostQuanCounter(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getPostQuanCounter", address, blockNumber);
     }
 
     // ===== 统计字段 =====
@@ -58,22 +103,22 @@ public class ExtendedAccountService {
     /**
      * 获取Gas总量
      */
-    public BigInteger getTotalNumberOfGas(String address) {
-        return callBigIntegerMethod("eth_getTotalNumberOfGas", address);
+    public BigInteger getTotalNumberOfGas(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getTotalNumberOfGas", address, blockNumber);
     }
 
     /**
      * 获取合约调用次数
      */
-    public BigInteger getContractCallCount(String address) {
-        return callBigIntegerMethod("eth_getContractCallCount", address);
+    public BigInteger getContractCallCount(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getContractCallCount", address, blockNumber);
     }
 
     /**
      * 获取交易总价值
      */
-    public BigInteger getTotalValueTx(String address) {
-        return callBigIntegerMethod("eth_getTotalValueTx", address);
+    public BigInteger getTotalValueTx(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getTotalValueTx", address, blockNumber);
     }
 
     // ===== 质押信息 =====
@@ -81,50 +126,64 @@ public class ExtendedAccountService {
     /**
      * 获取质押金额
      */
-    public BigInteger getPledgeAmount(String address) {
-        return callBigIntegerMethod("eth_getPledgeAmount", address);
+    public BigInteger getPledgeAmount(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getPledgeAmount", address, blockNumber);
+    }
+
+    /**
+     * 同步使用：直接读取最新的质押金额，不与接口查询合并
+     */
+    public BigInteger getLatestPledgeAmount(String address) {
+        return fetchLatestBigInteger("eth_getPledgeAmount", address);
+    }
+
+    /**
+     * 同步使用：直接读取最新的交易总价值，不与接口查询合并
+     */
+    public BigInteger getLatestTotalValueTx(String address) {
+        return fetchLatestBigInteger("eth_getTotalValueTx", address);
     }
 
     /**
      * 获取质押年限
      */
-    public BigInteger getPledgeYear(String address) {
-        return callBigIntegerMethod("eth_getPledgeYear", address);
+    public BigInteger getPledgeYear(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getPledgeYear", address, blockNumber);
     }
 
     /**
      * 获取质押开始时间
      */
-    public BigInteger getStartTime(String address) {
-        return callBigIntegerMethod("eth_getStartTime", address);
+    public BigInteger getStartTime(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getStartTime", address, blockNumber);
     }
 
     /**
      * 获取利率
      */
-    public BigInteger getInterestRate(String address) {
-        return callBigIntegerMethod("eth_getInterestRate", address);
+    public BigInteger getInterestRate(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getInterestRate", address, blockNumber);
     }
 
     /**
      * 获取当前利息
      */
-    public BigInteger getCurrentInterest(String address) {
-        return callBigIntegerMethod("eth_getCurrentInterest", address);
+    public BigInteger getCurrentInterest(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getCurrentInterest", address, blockNumber);
     }
 
     /**
      * 获取收益利息
      */
-    public BigInteger getEarnInterest(String address) {
-        return callBigIntegerMethod("eth_getEarnInterest", address);
+    public BigInteger getEarnInterest(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getEarnInterest", address, blockNumber);
     }
 
     /**
      * 获取质押完整信息（整合接口）
      */
-    public String getPledgeInfo(String address) {
-        return callStringMethod("eth_getPledgeInfo", address);
+    public String getPledgeInfo(String address, BigInteger blockNumber) {
+        return callStringMethod("eth_getPledgeInfo", address, blockNumber);
     }
 
     // ===== 合约年费相关 =====
@@ -132,15 +191,15 @@ public class ExtendedAccountService {
     /**
      * 获取合约年费
      */
-    public BigInteger getAnnualFee(String address) {
-        return callBigIntegerMethod("eth_getAnnualFee", address);
+    public BigInteger getAnnualFee(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getAnnualFee", address, blockNumber);
     }
 
     /**
      * 获取上次年费收取时间
      */
-    public BigInteger getLastAnnualFeeTime(String address) {
-        return callBigIntegerMethod("eth_getLastAnnualFeeTime", address);
+    public BigInteger getLastAnnualFeeTime(String address, BigInteger blockNumber) {
+        return callBigIntegerMethod("eth_getLastAnnualFeeTime", address, blockNumber);
     }
 
     // ===== 地址相关字段 =====
@@ -148,22 +207,22 @@ public class ExtendedAccountService {
     /**
      * 获取部署人地址
      */
-    public String getDeployedAddress(String address) {
-        return callStringMethod("eth_getDeployedAddress", address);
+    public String getDeployedAddress(String address, BigInteger blockNumber) {
+        return callStringMethod("eth_getDeployedAddress", address, blockNumber);
     }
 
     /**
      * 获取投资人地址
      */
-    public String getInvestorAddress(String address) {
-        return callStringMethod("eth_getInvestorAddress", address);
+    public String getInvestorAddress(String address, BigInteger blockNumber) {
+        return callStringMethod("eth_getInvestorAddress", address, blockNumber);
     }
 
     /**
      * 获取受益人地址
      */
-    public String getBeneficiaryAddress(String address) {
-        return callStringMethod("eth_getBeneficiaryAddress", address);
+    public String getBeneficiaryAddress(String address, BigInteger blockNumber) {
+        return callStringMethod("eth_getBeneficiaryAddress", address, blockNumber);
     }
 
     // ===== 标志字段 =====
@@ -171,8 +230,8 @@ public class ExtendedAccountService {
     /**
      * 获取质押标志
      */
-    public Boolean getStakeFlag(String address) {
-        return callBooleanMethod("eth_getStakeFlag", address);
+    public Boolean getStakeFlag(String address, BigInteger blockNumber) {
+        return callBooleanMethod("eth_getStakeFlag", address, blockNumber);
     }
 
     // ===== 通用调用方法 =====
@@ -180,91 +239,93 @@ public class ExtendedAccountService {
     /**
      * 调用返回BigInteger的RPC方法
      */
-    private BigInteger callBigIntegerMethod(String method, String address) {
-        try {
-            Request<?, org.web3j.protocol.core.methods.response.EthCall> request = new Request<>(
-                    method,
-                    Arrays.asList(address, "latest"),
-                    getWeb3jService(),
-                    org.web3j.protocol.core.methods.response.EthCall.class);
+    private BigInteger callBigIntegerMethod(String method, String address, BigInteger blockNumber) {
+        String value = callMethod(method, address, blockNumber);
+        return value == null ? BigInteger.ZERO : HexQuantity.hexToBigInteger(value);
+    }
 
-            org.web3j.protocol.core.methods.response.EthCall response = request.send();
+    /**
+     * 调用返回String的RPC方法
+     */
+    private String callStringMethod(String method, String address, BigInteger blockNumber) {
+        return callMethod(method, address, blockNumber);
+    }
 
-            if (response.hasError()) {
-                log.warn("{} failed for address {}: {}", method, address, response.getError().getMessage());
-                return BigInteger.ZERO;
-            }
+    /**
+     * 调用返回Boolean的RPC方法
+     */
+    private Boolean callBooleanMethod(String method, String address, BigInteger blockNumber) {
+        String value = callMethod(method, address, blockNumber);
+        if (value == null) {
+            return false;
+        }
 
-            String value = response.getValue();
-            if (value == null || value.equals("0x") || value.equals("0x0")) {
-                return BigInteger.ZERO;
-            }
+        // 0x1 = true, 0x0 = false
+        return !value.equals("0x0") && !value.equals("0x");
+    }
 
-            // 移除0x前缀并转换为BigInteger
-            String hexValue = value.startsWith("0x") ? value.substring(2) : value;
-            return new BigInteger(hexValue, 16);
+    /**
+     * 在指定高度调用自定义RPC方法，不可变高度的结果先查缓存，相同的并发调用合并为一次
+     *
+     * @return 节点报错或请求失败时返回null
+     */
+    private String callMethod(String method, String address, BigInteger blockNumber) {
+        String cached = historicalStateCache.get(method, address, blockNumber);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return rpcSingleFlight.execute(flightKey(method, address, blockNumber), () -> {
+                String value = request(method, address, blockNumber);
+                historicalStateCache.put(method, address, blockNumber, value);
+                return value;
+            });
 
         } catch (IOException e) {
             log.error("Error calling {} for address {}", method, address, e);
-            return BigInteger.ZERO;
+            return null;
         }
     }
 
     /**
-     * 调用返回String的RPC方法
+     * 同步抓取时读取最新状态：不查缓存、不合并，请求一定在区块抓取之后发出，
+     * 不会共享区块出块之前发起的接口查询结果
      */
-    private String callStringMethod(String method, String address) {
+    private BigInteger fetchLatestBigInteger(String method, String address) {
         try {
-            Request<?, org.web3j.protocol.core.methods.response.EthCall> request = new Request<>(
-                    method,
-                    Arrays.asList(address, "latest"),
-                    getWeb3jService(),
-                    org.web3j.protocol.core.methods.response.EthCall.class);
-
-            org.web3j.protocol.core.methods.response.EthCall response = request.send();
-
-            if (response.hasError()) {
-                log.warn("{} failed for address {}: {}", method, address, response.getError().getMessage());
-                return null;
-            }
-
-            return response.getValue();
-
+            String value = request(method, address, null);
+            return value == null ? BigInteger.ZERO : HexQuantity.hexToBigInteger(value);
         } catch (IOException e) {
             log.error("Error calling {} for address {}", method, address, e);
-            return null;
+            return BigInteger.ZERO;
         }
     }
 
     /**
-     * 调用返回Boolean的RPC方法
+     * 发送自定义RPC请求
+     *
+     * @return 节点报错时返回null
      */
-    private Boolean callBooleanMethod(String method, String address) {
-        try {
-            Request<?, org.web3j.protocol.core.methods.response.EthCall> request = new Request<>(
-                    method,
-                    Arrays.asList(address, "latest"),
-                    getWeb3jService(),
-                    org.web3j.protocol.core.methods.response.EthCall.class);
+    private String request(String method, String address, BigInteger blockNumber) throws IOException {
+        Request<?, org.web3j.protocol.core.methods.response.EthCall> request = new Request<>(
+                method,
+                Arrays.asList(address, HistoricalStateCache.toTag(blockNumber)),
+                getWeb3jService(),
+                org.web3j.protocol.core.methods.response.EthCall.class);
 
-            org.web3j.protocol.core.methods.response.EthCall response = request.send();
+        org.web3j.protocol.core.methods.response.EthCall response = request.send();
 
-            if (response.hasError()) {
-                log.warn("{} failed for address {}: {}", method, address, response.getError().getMessage());
-                return false;
-            }
-
-            String value = response.getValue();
-            if (value == null) {
-                return false;
-            }
-
-            // 0x1 = true, 0x0 = false
-            return !value.equals("0x0") && !value.equals("0x");
-
-        } catch (IOException e) {
-            log.error("Error calling {} for address {}", method, address, e);
-            return false;
+        if (response.hasError()) {
+            log.warn("{} failed for address {}: {}", method, address, response.getError().getMessage());
+            return null;
         }
+        return response.getValue();
+    }
+
+    /**
+     * 请求合并的键：方法 + 地址 + 高度
+     */
+    static String flightKey(String method, String address, BigInteger blockNumber) {
+        return method + ':' + address.toLowerCase(Locale.ROOT) + ':' + HistoricalStateCache.toTag(blockNumber);
     }
 }
@@ -25,6 +25,9 @@ public class ExtendedBlockService {
     @Autowired
     private Web3j web3j;
 
+    @Autowired
+    private RawBlockArchiveService rawBlockArchiveService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -68,6 +71,15 @@ public class ExtendedBlockService {
             return null;
         }
 
+        // 归档完整区块的原始响应（归档失败不影响同步）
+        if (fullTransactions && rawBlockArchiveService.isEnabled()) {
+            try {
+                rawBlockArchiveService.append(blockNumber, result);
+            } catch (IOException e) {
+                log.error("Failed to archive raw block {}", blockNumber, e);
+            }
+        }
+
         return objectMapper.convertValue(result, ExtendedBlockData.class);
     }
 
@@ -0,0 +1,205 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.util.QuantileSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 手续费预言机服务
+ * 由同步流程逐块喂入交易gasPrice，按滑动区块窗口维护 p10/p50/p90/p99 分位数，
+ * 同时记录最新区块的 baseFee、powPrice、powGas。
+ * 每个区块入窗时预先计算结果，查询直接返回快照。
+ */
+@Slf4j
+@Service
+public class FeeOracleService {
+
+    private static final double[] QUANTILES = { 0.10, 0.50, 0.90, 0.99 };
+    private static final String[] QUANTILE_NAMES = { "p10", "p50", "p90", "p99" };
+
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * 滑动窗口大小（区块数）
+     */
+    @Value("${blockchain.fee-oracle.windows:20,200}")
+    private int[] windows;
+
+    /**
+     * 分位数相对误差
+     */
+    @Value("${blockchain.fee-oracle.relative-accuracy:0.01}")
+    private double relativeAccuracy;
+
+    /**
+     * 最近 maxWindow 个区块的样本（环形缓冲区）
+     */
+    private BlockFeeSample[] ring;
+    private int head;
+    private int filled;
+    private long lastBlockNumber = -1;
+
+    /**
+     * 每个窗口的聚合草图
+     */
+    private QuantileSketch[] windowSketches;
+
+    private volatile Map<String, Object> snapshot = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        windows = Arrays.stream(windows).filter(w -> w > 0).sorted().distinct().toArray();
+        if (windows.length == 0) {
+            throw new IllegalStateException("blockchain.fee-oracle.windows must contain a positive size");
+        }
+        ring = new BlockFeeSample[windows[windows.length - 1]];
+        windowSketches = new QuantileSketch[windows.length];
+        for (int i = 0; i < windows.length; i++) {
+            windowSketches[i] = new QuantileSketch(relativeAccuracy);
+        }
+
+        try {
+            warmUp();
+        } catch (Exception e) {
+            log.error("Failed to warm up fee oracle from database", e);
+        }
+    }
+
+    /**
+     * 区块入库后调用
+     */
+    public synchronized void onBlock(Block block, List<Transaction> transactions) {
+        List<BigInteger> gasPrices = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            gasPrices.add(transaction.getGasPrice());
+        }
+        addSample(block, gasPrices);
+    }
+
+    /**
+     * 获取当前手续费统计快照
+     */
+    public Map<String, Object> getFeeStats() {
+        return snapshot;
+    }
+
+    /**
+     * 启动时用数据库中最近的区块填充窗口
+     */
+    private synchronized void warmUp() {
+        BigInteger maxBlockNumber = blockRepository.findMaxBlockNumber();
+        if (maxBlockNumber == null) {
+            return;
+        }
+        BigInteger fromBlock = maxBlockNumber.subtract(BigInteger.valueOf(ring.length - 1)).max(BigInteger.ZERO);
+
+        Map<BigInteger, List<BigInteger>> gasPricesByBlock = new HashMap<>();
+        for (Object[] row : transactionRepository.findGasPricesByBlockRange(fromBlock, maxBlockNumber)) {
+            gasPricesByBlock.computeIfAbsent((BigInteger) row[0], k -> new ArrayList<>()).add((BigInteger) row[1]);
+        }
+
+        List<Block> blocks = blockRepository.findByBlockNumberBetweenOrderByBlockNumberAsc(fromBlock, maxBlockNumber);
+        for (Block block : blocks) {
+            addSample(block, gasPricesByBlock.getOrDefault(block.getBlockNumber(), Collections.emptyList()));
+        }
+        log.info("Fee oracle warmed up with {} blocks", blocks.size());
+    }
+
+    private void addSample(Block block, List<BigInteger> gasPrices) {
+        long blockNumber = block.getBlockNumber().longValue();
+        if (blockNumber <= lastBlockNumber) {
+            return;
+        }
+
+        QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+        for (BigInteger gasPrice : gasPrices) {
+            if (gasPrice != null) {
+                sketch.add(gasPrice.min(MAX_LONG).longValue());
+            }
+        }
+
+        // 新样本入窗，同时移出每个窗口中最旧的样本
+        for (int i = 0; i < windows.length; i++) {
+            windowSketches[i].merge(sketch);
+            if (filled >= windows[i]) {
+                BlockFeeSample evicted = ring[(head - windows[i] + ring.length) % ring.length];
+                windowSketches[i].subtract(evicted.sketch);
+            }
+        }
+
+        BlockFeeSample sample = new BlockFeeSample(blockNumber, sketch, block);
+        ring[head] = sample;
+        head = (head + 1) % ring.length;
+        filled = Math.min(filled + 1, ring.length);
+        lastBlockNumber = blockNumber;
+
+        snapshot = render(sample);
+    }
+
+    private Map<String, Object> render(BlockFeeSample latest) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("latestBlock", latest.blockNumber);
+        result.put("baseFee", toStringOrNull(latest.baseFee));
+        result.put("powPrice", toStringOrNull(latest.powPrice));
+        result.put("powGas", toStringOrNull(latest.powGas));
+
+        List<Map<String, Object>> windowStats = new ArrayList<>(windows.length);
+        for (int i = 0; i < windows.length; i++) {
+            QuantileSketch sketch = windowSketches[i];
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("blocks", Math.min(filled, windows[i]));
+            stats.put("txCount", sketch.getCount());
+            for (int q = 0; q < QUANTILES.length; q++) {
+                stats.put(QUANTILE_NAMES[q], String.valueOf(sketch.quantile(QUANTILES[q])));
+            }
+            windowStats.add(Collections.unmodifiableMap(stats));
+        }
+        result.put("gasPrice", Collections.unmodifiableList(windowStats));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static String toStringOrNull(BigInteger value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 单个区块的手续费样本
+     */
+    private static class BlockFeeSample {
+        private final long blockNumber;
+        private final QuantileSketch sketch;
+        private final BigInteger baseFee;
+        private final BigInteger powPrice;
+        private final BigInteger powGas;
+
+        BlockFeeSample(long blockNumber, QuantileSketch sketch, Block block) {
+            this.blockNumber = blockNumber;
+            this.sketch = sketch;
+            this.baseFee = block.getBaseFee();
+            this.powPrice = block.getPowPrice();
+            this.powGas = block.getPowGas();
+        }
+    }
+}
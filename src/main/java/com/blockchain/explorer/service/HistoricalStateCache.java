@@ -0,0 +1,157 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.repository.BlockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.DefaultBlockParameter;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 历史账户状态缓存
+ * <p>
+ * 账户查询都指定区块高度（默认为已索引的最新区块），同一页面内的多次RPC读取的是同一个状态。
+ * (方法, 地址, 高度) 的结果由链上状态唯一确定：高度不超过 已索引最新区块 - finality-depth 的结果不会再变化，
+ * 放入有界LRU缓存，只按容量淘汰，不需要失效；更新的高度可能因重组改变，不缓存。
+ */
+@Service
+public class HistoricalStateCache {
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Value("${blockchain.account.cache-size:100000}")
+    private int cacheSize;
+
+    /**
+     * 低于已索引最新区块多少个区块视为不可变
+     */
+    @Value("${blockchain.account.finality-depth:12}")
+    private long finalityDepth;
+
+    private Map<String, String> cache;
+
+    /**
+     * 最近一次查询到的已索引最新区块（只增不减，偏旧时判定更保守）
+     */
+    private volatile BigInteger indexedTip;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * 确定查询高度：未指定时取已索引的最新区块，数据库为空时返回null（查询 latest）
+     * 最新区块取自搜索索引（同步写库前登记，不查询数据库），索引尚未加载时才查询数据库
+     *
+     * @throws IllegalArgumentException 高度为负数
+     */
+    public BigInteger resolveBlock(BigInteger requested) {
+        if (requested != null && requested.signum() < 0) {
+            throw new IllegalArgumentException("Invalid block number: " + requested);
+        }
+        long indexed = searchIndexService.getMaxBlockNumber();
+        BigInteger tip = indexed >= 0 ? BigInteger.valueOf(indexed) : blockRepository.findMaxBlockNumber();
+        if (tip != null) {
+            synchronized (this) {
+                if (indexedTip == null || tip.compareTo(indexedTip) > 0) {
+                    indexedTip = tip;
+                }
+            }
+        }
+        return requested != null ? requested : tip;
+    }
+
+    /**
+     * 转换为RPC区块参数，null 表示 latest
+     */
+    public static DefaultBlockParameter toParameter(BigInteger blockNumber) {
+        return blockNumber == null ? DefaultBlockParameter.valueOf("latest")
+                : DefaultBlockParameter.valueOf(blockNumber);
+    }
+
+    /**
+     * RPC区块参数的字符串形式（自定义RPC方法使用），null 表示 latest
+     */
+    public static String toTag(BigInteger blockNumber) {
+        return blockNumber == null ? "latest" : "0x" + blockNumber.toString(16);
+    }
+
+    /**
+     * 查询缓存，未命中返回null
+     */
+    public String get(String method, String address, BigInteger blockNumber) {
+        if (blockNumber == null) {
+            return null;
+        }
+        String value;
+        synchronized (cache) {
+            value = cache.get(key(method, address, blockNumber));
+        }
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * 保存查询结果，只缓存不可变高度的结果
+     */
+    public void put(String method, String address, BigInteger blockNumber, String value) {
+        if (value == null || !isFinalized(blockNumber)) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key(method, address, blockNumber), value);
+        }
+    }
+
+    /**
+     * 该高度的状态是否已不可变
+     */
+    public boolean isFinalized(BigInteger blockNumber) {
+        BigInteger tip = indexedTip;
+        return blockNumber != null && tip != null
+                && blockNumber.compareTo(tip.subtract(BigInteger.valueOf(finalityDepth))) <= 0;
+    }
+
+    /**
+     * 缓存指标
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        synchronized (cache) {
+            status.put("size", cache.size());
+        }
+        status.put("capacity", cacheSize);
+        status.put("hits", hits.get());
+        status.put("misses", misses.get());
+        status.put("indexedTip", indexedTip);
+        status.put("finalityDepth", finalityDepth);
+        return status;
+    }
+
+    private static String key(String method, String address, BigInteger blockNumber) {
+        return method + ':' + address.toLowerCase(Locale.ROOT) + ':' + blockNumber;
+    }
+}
@@ -0,0 +1,186 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.SyncLease;
+import com.blockchain.explorer.repository.SyncLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 同步领导选举服务
+ * <p>
+ * 多个实例共用一个数据库时，通过 sync_leases 表中的租约选出唯一写入节点：
+ * 领导节点每 renew-interval 续约一次，租约有效期 lease-seconds；领导节点宕机后租约过期，
+ * 其他节点在下一次续约检查时接管。所有节点都提供读接口，跟随节点从数据库重放新区块更新内存统计。
+ * 节点间依赖本地时钟判断过期，需保持时钟同步（误差应远小于租约有效期）。
+ */
+@Slf4j
+@Service
+public class LeaderElectionService {
+
+    public static final String SYNC_LEASE = "block_sync";
+
+    @Autowired
+    private SyncLeaseRepository syncLeaseRepository;
+
+    /**
+     * 关闭后视为单节点部署，本节点始终是领导节点
+     */
+    @Value("${blockchain.leader.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.leader.lease-seconds:15}")
+    private long leaseSeconds;
+
+    @Value("${blockchain.leader.instance-id:}")
+    private String instanceId;
+
+    private volatile boolean leader = false;
+
+    /**
+     * 本地认为租约有效的截止时间（毫秒），续约失败时领导身份最晚在此时失效
+     */
+    private volatile long validUntilMillis = 0;
+
+    /**
+     * 任期：每次（重新）获得租约时加一，期间其他节点可能写入过数据
+     */
+    private final AtomicLong term = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = defaultInstanceId();
+        }
+        if (!enabled) {
+            leader = true;
+            log.info("Leader election disabled, instance {} syncs unconditionally", instanceId);
+            return;
+        }
+        if (!syncLeaseRepository.existsById(SYNC_LEASE)) {
+            SyncLease lease = new SyncLease();
+            lease.setName(SYNC_LEASE);
+            lease.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            try {
+                syncLeaseRepository.save(lease);
+            } catch (DataIntegrityViolationException e) {
+                // 其他节点同时创建
+            }
+        }
+        renew();
+    }
+
+    /**
+     * 获取或续约租约
+     */
+    @Scheduled(fixedDelayString = "${blockchain.leader.renew-interval:5000}")
+    public void renew() {
+        if (!enabled) {
+            return;
+        }
+        long startMillis = System.currentTimeMillis();
+        boolean wasLeader = isLeader();
+        LocalDateTime now = LocalDateTime.now();
+        boolean acquired;
+        try {
+            acquired = syncLeaseRepository.tryAcquire(SYNC_LEASE, instanceId, now,
+                    now.plusSeconds(leaseSeconds)) == 1;
+        } catch (Exception e) {
+            // 数据库不可用时无法续约，到期前保持身份，到期后自动失效
+            log.warn("Failed to renew sync lease: {}", e.getMessage());
+            return;
+        }
+
+        if (acquired) {
+            // 以发起续约的时间计算，保守地早于数据库中的到期时间
+            validUntilMillis = startMillis + leaseSeconds * 1000;
+            if (!wasLeader) {
+                term.incrementAndGet();
+            }
+            if (!leader) {
+                log.info("Instance {} acquired sync leadership", instanceId);
+            }
+            leader = true;
+        } else {
+            if (leader) {
+                log.warn("Instance {} lost sync leadership", instanceId);
+            }
+            leader = false;
+        }
+    }
+
+    /**
+     * 本节点当前是否可以写入链上数据
+     */
+    public boolean isLeader() {
+        return leader && (!enabled || System.currentTimeMillis() < validUntilMillis);
+    }
+
+    /**
+     * 当前任期，领导身份中断后重新获得时变化
+     */
+    public long getTerm() {
+        return term.get();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * 租约状态
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("instanceId", instanceId);
+        status.put("leader", isLeader());
+        status.put("electionEnabled", enabled);
+        if (enabled) {
+            syncLeaseRepository.findById(SYNC_LEASE).ifPresent(lease -> {
+                status.put("leaseOwner", lease.getOwner());
+                status.put("leaseExpiresAt", lease.getExpiresAt());
+            });
+        }
+        return status;
+    }
+
+    /**
+     * 正常关闭时释放租约，其他节点无需等待过期即可接管
+     */
+    @PreDestroy
+    public void release() {
+        if (enabled && leader) {
+            leader = false;
+            try {
+                syncLeaseRepository.release(SYNC_LEASE, instanceId, LocalDateTime.now().minusSeconds(1));
+                log.info("Instance {} released sync leadership", instanceId);
+            } catch (Exception e) {
+                log.warn("Failed to release sync lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ManagementFactory.getRuntimeMXBean().getName().split("@")[0] + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
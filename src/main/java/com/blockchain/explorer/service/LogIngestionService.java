@@ -0,0 +1,203 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.EventLog;
+import com.blockchain.explorer.entity.SyncCursor;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.SyncCursorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 事件日志抓取服务
+ * <p>
+ * 独立于区块同步运行：按 sync_cursors 中记录的进度，对已入库的区块范围批量调用 eth_getLogs，
+ * 写入 event_logs、交给 {@link TokenIndexService} 解析代币转账后推进游标（同一事务，先删除范围内旧数据，重复执行幂等）。
+ * 每批区块数自适应：返回日志过多或节点报错（结果过大/超时）时减半，日志稀疏时翻倍，
+ * 追赶历史时用大范围请求，跟随链头时每批只有几个区块。只在同步领导节点上运行。
+ */
+@Slf4j
+@Service
+public class LogIngestionService {
+
+    public static final String CURSOR_NAME = "event_logs";
+
+    @Autowired
+    private Web3j web3j;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private SyncCursorRepository syncCursorRepository;
+
+    @Autowired
+    private ReindexService reindexService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TokenIndexService tokenIndexService;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Value("${blockchain.logs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.logs.min-chunk:1}")
+    private int minChunk;
+
+    @Value("${blockchain.logs.max-chunk:5000}")
+    private int maxChunk;
+
+    /**
+     * 单次 eth_getLogs 期望返回的日志数上限，超过则下次缩小范围
+     */
+    @Value("${blockchain.logs.target-logs:5000}")
+    private int targetLogs;
+
+    private volatile int chunk = 100;
+    private volatile boolean isRunning = false;
+
+    /**
+     * 定时抓取，一次运行内追到区块同步的进度为止
+     */
+    @Scheduled(fixedDelayString = "${blockchain.logs.interval:2000}")
+    public void ingestLogs() {
+        if (!enabled || isRunning || reindexService.isRunning() || !leaderElectionService.isLeader()) {
+            return;
+        }
+        try {
+            isRunning = true;
+            BigInteger syncedTip = blockRepository.findMaxBlockNumber();
+            if (syncedTip == null) {
+                return;
+            }
+
+            BigInteger from = syncCursorRepository.findById(CURSOR_NAME)
+                    .map(cursor -> cursor.getBlockNumber().add(BigInteger.ONE))
+                    .orElse(BigInteger.ZERO);
+            while (from.compareTo(syncedTip) <= 0 && leaderElectionService.isLeader()) {
+                BigInteger to = from.add(BigInteger.valueOf(chunk - 1)).min(syncedTip);
+                List<EventLog> logs = fetchLogs(from, to);
+                if (logs == null) {
+                    // 请求失败：缩小范围后重试，已是最小范围则等下一轮
+                    if (chunk == minChunk) {
+                        return;
+                    }
+                    chunk = Math.max(minChunk, chunk / 2);
+                    continue;
+                }
+
+                store(from, to, logs);
+                adaptChunk(logs.size());
+                from = to.add(BigInteger.ONE);
+            }
+        } catch (Exception e) {
+            log.error("Error ingesting event logs", e);
+        } finally {
+            isRunning = false;
+        }
+    }
+
+    /**
+     * 当前每批区块数
+     */
+    public int getChunk() {
+        return chunk;
+    }
+
+    /**
+     * 调用 eth_getLogs
+     *
+     * @return 节点报错或请求失败时返回null
+     */
+    private List<EventLog> fetchLogs(BigInteger from, BigInteger to) {
+        EthFilter filter = new EthFilter(DefaultBlockParameter.valueOf(from), DefaultBlockParameter.valueOf(to),
+                Collections.<String>emptyList());
+        try {
+            EthLog response = web3j.ethGetLogs(filter).send();
+            if (response.hasError()) {
+                log.warn("eth_getLogs {}-{} failed ({} blocks): {}", from, to, chunk,
+                        response.getError().getMessage());
+                return null;
+            }
+            List<EventLog> logs = new ArrayList<>(response.getLogs().size());
+            for (EthLog.LogResult<?> result : response.getLogs()) {
+                logs.add(convert((Log) result.get()));
+            }
+            return logs;
+        } catch (IOException e) {
+            log.warn("eth_getLogs {}-{} failed ({} blocks): {}", from, to, chunk, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(BigInteger from, BigInteger to, List<EventLog> logs) {
+        transactionTemplate.executeWithoutResult(status -> {
+            blockBulkRepository.deleteEventLogs(from, to);
+            if (!logs.isEmpty()) {
+                blockBulkRepository.insertEventLogs(logs);
+            }
+            tokenIndexService.onLogs(from, to, logs);
+            SyncCursor cursor = new SyncCursor();
+            cursor.setName(CURSOR_NAME);
+            cursor.setBlockNumber(to);
+            cursor.setLastUpdated(LocalDateTime.now());
+            syncCursorRepository.save(cursor);
+        });
+        if (!logs.isEmpty()) {
+            log.info("Ingested {} event logs from blocks {}-{}", logs.size(), from, to);
+        }
+    }
+
+    private void adaptChunk(int logCount) {
+        if (logCount > targetLogs) {
+            chunk = Math.max(minChunk, chunk / 2);
+        } else if (logCount < targetLogs / 4) {
+            chunk = Math.min(maxChunk, chunk * 2);
+        }
+    }
+
+    private static EventLog convert(Log source) {
+        EventLog eventLog = new EventLog();
+        eventLog.setBlockNumber(source.getBlockNumber());
+        eventLog.setLogIndex(source.getLogIndex().intValue());
+        eventLog.setTxHash(source.getTransactionHash());
+        eventLog.setTransactionIndex(source.getTransactionIndex().intValue());
+        eventLog.setAddress(lower(source.getAddress()));
+        List<String> topics = source.getTopics() == null ? Collections.emptyList() : source.getTopics();
+        eventLog.setTopic0(topics.size() > 0 ? lower(topics.get(0)) : null);
+        eventLog.setTopic1(topics.size() > 1 ? lower(topics.get(1)) : null);
+        eventLog.setTopic2(topics.size() > 2 ? lower(topics.get(2)) : null);
+        eventLog.setTopic3(topics.size() > 3 ? lower(topics.get(3)) : null);
+        eventLog.setData(source.getData());
+        return eventLog;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,271 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.dto.TxpoolContent;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.util.HexQuantity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 待打包交易跟踪服务
+ * <p>
+ * 定时调用 txpool_content，把节点交易池中的 pending 交易保存在有界的内存池中，
+ * 交易哈希查不到已入库交易时作为兜底返回。淘汰由同步流驱动：
+ * <ul>
+ * <li>区块入库时移除已打包的交易，以及同一发送方 nonce 不大于已打包 nonce 的交易（已被替换或失效）</li>
+ * <li>超过 max-age-seconds 仍未打包的交易</li>
+ * <li>超过 max-size 时淘汰最早进入的交易</li>
+ * </ul>
+ * 最近打包的交易哈希另行记录，避免轮询时把刚入库的交易重新加入。
+ */
+@Slf4j
+@Service
+public class PendingTransactionService {
+
+    @Autowired
+    private Web3j web3j;
+
+    @Value("${blockchain.mempool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.mempool.max-size:50000}")
+    private int maxSize;
+
+    @Value("${blockchain.mempool.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    /**
+     * 交易哈希 -> 待打包交易，按首次发现顺序排列
+     */
+    private final LinkedHashMap<String, PendingTransaction> pool = new LinkedHashMap<>();
+
+    /**
+     * 发送方 -> (nonce -> 交易哈希)，按 nonce 排序，用于淘汰被替换或失效的交易
+     */
+    private final Map<String, TreeMap<BigInteger, String>> bySender = new HashMap<>();
+
+    /**
+     * 最近打包的交易哈希（有界），防止轮询结果滞后时重新加入
+     */
+    private final LinkedHashMap<String, Boolean> recentlyIncluded = new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private volatile boolean supported = true;
+
+    /**
+     * 获取Web3jService实例
+     */
+    private Web3jService getWeb3jService() {
+        try {
+            java.lang.reflect.Field field = web3j.getClass().getDeclaredField("web3jService");
+            field.setAccessible(true);
+            return (Web3jService) field.get(web3j);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get Web3jService", e);
+        }
+    }
+
+    /**
+     * 定时拉取节点交易池
+     */
+    @Scheduled(fixedDelayString = "${blockchain.mempool.poll-interval:2000}")
+    public void poll() {
+        if (!enabled || !supported) {
+            return;
+        }
+        try {
+            TxpoolContent response = new Request<>(
+                    "txpool_content",
+                    Collections.emptyList(),
+                    getWeb3jService(),
+                    TxpoolContent.class).send();
+            if (response.hasError()) {
+                // 节点未开放 txpool 命名空间时不再重试
+                supported = false;
+                log.warn("txpool_content not available, pending transaction tracking disabled: {}",
+                        response.getError().getMessage());
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            int added = 0;
+            synchronized (this) {
+                for (Map<String, Object> raw : response.getPendingTransactions()) {
+                    if (add(raw, now)) {
+                        added++;
+                    }
+                }
+                evictExpired(now);
+            }
+            if (added > 0) {
+                log.debug("Tracked {} new pending transactions, pool size {}", added, size());
+            }
+        } catch (Exception e) {
+            log.warn("Error polling txpool_content: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 区块入库后淘汰已打包及被替换的交易
+     */
+    public synchronized void onBlock(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            String hash = normalize(transaction.getTxHash());
+            recentlyIncluded.put(hash, Boolean.TRUE);
+            remove(hash);
+
+            // 同一发送方 nonce 不大于已打包 nonce 的交易不可能再被打包（中间有空缺也一并移除）
+            String sender = normalize(transaction.getFromAddress());
+            TreeMap<BigInteger, String> nonces = sender == null ? null : bySender.get(sender);
+            if (nonces != null && transaction.getNonce() != null) {
+                Map<BigInteger, String> stale = nonces.headMap(transaction.getNonce(), true);
+                for (String replaced : stale.values()) {
+                    pool.remove(replaced);
+                }
+                stale.clear();
+                if (nonces.isEmpty()) {
+                    bySender.remove(sender);
+                }
+            }
+        }
+        evictExpired(LocalDateTime.now());
+    }
+
+    /**
+     * 按哈希查询待打包交易
+     *
+     * @return 不在交易池中时返回null
+     */
+    public synchronized Transaction get(String txHash) {
+        PendingTransaction pending = pool.get(normalize(txHash));
+        return pending == null ? null : pending.transaction;
+    }
+
+    /**
+     * 最近发现的待打包交易
+     */
+    public synchronized List<Transaction> getRecent(int limit) {
+        List<Transaction> all = new ArrayList<>(pool.size());
+        for (PendingTransaction pending : pool.values()) {
+            all.add(pending.transaction);
+        }
+        Collections.reverse(all);
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    public synchronized int size() {
+        return pool.size();
+    }
+
+    private boolean add(Map<String, Object> raw, LocalDateTime now) {
+        String hash = normalize((String) raw.get("hash"));
+        if (hash == null || pool.containsKey(hash) || recentlyIncluded.containsKey(hash)) {
+            return false;
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTxHash(hash);
+        transaction.setFromAddress((String) raw.get("from"));
+        transaction.setToAddress((String) raw.get("to"));
+        transaction.setValue(HexQuantity.toBigInteger((String) raw.get("value")));
+        transaction.setGasPrice(HexQuantity.toBigInteger((String) raw.get("gasPrice")));
+        transaction.setGas(HexQuantity.toBigInteger((String) raw.get("gas")));
+        transaction.setInput((String) raw.get("input"));
+        transaction.setNonce(HexQuantity.toBigInteger((String) raw.get("nonce")));
+        transaction.setTxType(BlockConverter.decodeTxType((String) raw.get("type")));
+        transaction.setTimestamp(now);
+        transaction.setPending(true);
+
+        while (pool.size() >= maxSize) {
+            Iterator<String> eldest = pool.keySet().iterator();
+            remove(eldest.next());
+        }
+
+        PendingTransaction pending = new PendingTransaction(transaction, normalize(transaction.getFromAddress()));
+        if (pending.sender != null && transaction.getNonce() != null) {
+            String replaced = bySender.computeIfAbsent(pending.sender, k -> new TreeMap<>())
+                    .put(transaction.getNonce(), hash);
+            if (replaced != null) {
+                // 同 nonce 的新交易替换旧交易（加价重发）
+                pool.remove(replaced);
+            }
+        }
+        pool.put(hash, pending);
+        return true;
+    }
+
+    /**
+     * 按首次发现顺序从最早的开始淘汰超龄交易
+     */
+    private void evictExpired(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusSeconds(maxAgeSeconds);
+        Iterator<PendingTransaction> iterator = pool.values().iterator();
+        while (iterator.hasNext()) {
+            PendingTransaction pending = iterator.next();
+            if (pending.transaction.getTimestamp().isAfter(cutoff)) {
+                break;
+            }
+            iterator.remove();
+            unindex(pending);
+        }
+    }
+
+    private void remove(String hash) {
+        PendingTransaction pending = pool.remove(hash);
+        if (pending != null) {
+            unindex(pending);
+        }
+    }
+
+    /**
+     * 从发送方索引中移除（仅当该 nonce 仍指向这笔交易时）
+     */
+    private void unindex(PendingTransaction pending) {
+        TreeMap<BigInteger, String> nonces = pending.sender == null ? null : bySender.get(pending.sender);
+        if (nonces != null && pending.transaction.getNonce() != null) {
+            nonces.remove(pending.transaction.getNonce(), pending.transaction.getTxHash());
+            if (nonces.isEmpty()) {
+                bySender.remove(pending.sender);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 待打包交易及其小写的发送方地址
+     */
+    private static class PendingTransaction {
+        private final Transaction transaction;
+        private final String sender;
+
+        PendingTransaction(Transaction transaction, String sender) {
+            this.transaction = transaction;
+            this.sender = sender;
+        }
+    }
+}
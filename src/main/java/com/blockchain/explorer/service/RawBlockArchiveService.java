@@ -0,0 +1,326 @@
+package com.blockchain.explorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 原始区块归档服务（可选）
+ * <p>
+ * 将 eth_getBlockByNumber 返回的原始区块JSON压缩后追加写入分段文件，
+ * 便于新增字段或修复转换逻辑后从本地重建数据，而无需重新从节点下载。
+ * <ul>
+ * <li>segment-NNNNNN.dat：记录 = [blockNumber(8)][原始长度(4)][压缩长度(4)][deflate数据]</li>
+ * <li>segment-NNNNNN.idx：索引 = [blockNumber(8)][记录偏移(8)]，启动时加载到内存</li>
+ * </ul>
+ * 读取通过内存映射完成，单个区块读取只需一次解压。
+ */
+@Slf4j
+@Service
+public class RawBlockArchiveService {
+
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int SEGMENT_ID_SHIFT = 40;
+    private static final long OFFSET_MASK = (1L << SEGMENT_ID_SHIFT) - 1;
+
+    @Value("${blockchain.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${blockchain.archive.dir:./data/block-archive}")
+    private String dir;
+
+    @Value("${blockchain.archive.segment-size-mb:256}")
+    private int segmentSizeMb;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 区块号 -> (段号 << 40 | 记录偏移)
+     */
+    private final Map<Long, Long> locations = new ConcurrentHashMap<>();
+
+    /**
+     * 段号 -> 只读映射（活动段在文件增长后重新映射）
+     */
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    private Path root;
+    private long segmentSize;
+    private int activeSegment;
+    private FileChannel activeData;
+    private FileChannel activeIndex;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(dir);
+        Files.createDirectories(root);
+        segmentSize = Math.min(segmentSizeMb, 1024) * 1024L * 1024L;
+
+        List<Integer> segments = listSegments();
+        for (int segment : segments) {
+            loadIndex(segment);
+        }
+        activeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        openActiveSegment();
+        log.info("Raw block archive opened at {} with {} blocks in {} segments",
+                root.toAbsolutePath(), locations.size(), Math.max(segments.size(), 1));
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (activeData != null) {
+            activeData.force(false);
+            activeData.close();
+            activeIndex.force(false);
+            activeIndex.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean contains(long blockNumber) {
+        return locations.containsKey(blockNumber);
+    }
+
+    /**
+     * 追加原始区块（已存在则跳过）
+     */
+    public synchronized void append(BigInteger blockNumber, Object rawBlock) throws IOException {
+        long number = blockNumber.longValue();
+        if (!enabled || locations.containsKey(number)) {
+            return;
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(rawBlock);
+        byte[] compressed = deflate(json);
+
+        if (activeData.size() > 0 && activeData.size() + RECORD_HEADER_SIZE + compressed.length > segmentSize) {
+            rollSegment();
+        }
+
+        long offset = activeData.size();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + compressed.length);
+        record.putLong(number).putInt(json.length).putInt(compressed.length).put(compressed).flip();
+        writeFully(activeData, record, offset);
+
+        // 先写数据再写索引，崩溃时最多留下一条没有索引的记录
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        entry.putLong(number).putLong(offset).flip();
+        writeFully(activeIndex, entry, activeIndex.size());
+
+        locations.put(number, ((long) activeSegment << SEGMENT_ID_SHIFT) | offset);
+    }
+
+    /**
+     * 读取原始区块JSON
+     *
+     * @return 未归档时返回null
+     */
+    public byte[] read(long blockNumber) throws IOException {
+        Long location = locations.get(blockNumber);
+        if (location == null) {
+            return null;
+        }
+        int segment = (int) (location >>> SEGMENT_ID_SHIFT);
+        long offset = location & OFFSET_MASK;
+
+        ByteBuffer buffer = mapping(segment, offset + RECORD_HEADER_SIZE).duplicate();
+        buffer.position((int) offset);
+        buffer.getLong();
+        int rawLength = buffer.getInt();
+        int compressedLength = buffer.getInt();
+        if (buffer.remaining() < compressedLength) {
+            buffer = mapping(segment, offset + RECORD_HEADER_SIZE + compressedLength).duplicate();
+            buffer.position((int) offset + RECORD_HEADER_SIZE);
+        }
+        buffer.limit(buffer.position() + compressedLength);
+        return inflate(buffer, rawLength);
+    }
+
+    /**
+     * 列出所有分段号（升序）
+     */
+    public List<Integer> listSegmentIds() throws IOException {
+        return enabled ? listSegments() : Collections.emptyList();
+    }
+
+    /**
+     * 列出某个分段中归档的区块号（升序）
+     */
+    public List<Long> listBlockNumbers(int segment) {
+        List<Long> blockNumbers = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : locations.entrySet()) {
+            if ((int) (entry.getValue() >>> SEGMENT_ID_SHIFT) == segment) {
+                blockNumbers.add(entry.getKey());
+            }
+        }
+        Collections.sort(blockNumbers);
+        return blockNumbers;
+    }
+
+    /**
+     * 获取映射，活动段的现有映射不够长时重新映射
+     */
+    private MappedByteBuffer mapping(int segment, long requiredLength) throws IOException {
+        MappedByteBuffer mapped = mappings.get(segment);
+        if (mapped != null && mapped.capacity() >= requiredLength) {
+            return mapped;
+        }
+        try (FileChannel channel = FileChannel.open(dataFile(segment), StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mappings.put(segment, mapped);
+        return mapped;
+    }
+
+    private void rollSegment() throws IOException {
+        activeData.force(false);
+        activeData.close();
+        activeIndex.force(false);
+        activeIndex.close();
+        activeSegment++;
+        openActiveSegment();
+        log.info("Raw block archive rolled to segment {}", activeSegment);
+    }
+
+    private void openActiveSegment() throws IOException {
+        activeData = FileChannel.open(dataFile(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeIndex = FileChannel.open(indexFile(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 加载分段索引：崩溃时索引末尾可能只写了半条，先截断到整条，之后追加的索引才能对齐；
+     * 只登记记录头中的区块号一致、且压缩数据完整写入数据文件的条目
+     */
+    private void loadIndex(int segment) throws IOException {
+        ByteBuffer entries;
+        try (FileChannel index = FileChannel.open(indexFile(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long complete = index.size() - index.size() % INDEX_ENTRY_SIZE;
+            if (complete < index.size()) {
+                log.warn("Truncating partial entry at the end of archive index segment {}", segment);
+                index.truncate(complete);
+                index.force(false);
+            }
+            entries = ByteBuffer.allocate((int) complete);
+            while (entries.hasRemaining()) {
+                if (index.read(entries, entries.position()) < 0) {
+                    throw new IOException("Unexpected end of archive index segment " + segment);
+                }
+            }
+            entries.flip();
+        }
+
+        long dataSize = Files.size(dataFile(segment));
+        MappedByteBuffer data = dataSize == 0 ? null : mapping(segment, dataSize);
+        while (entries.remaining() >= INDEX_ENTRY_SIZE) {
+            long blockNumber = entries.getLong();
+            long offset = entries.getLong();
+            if (data != null && isCompleteRecord(data, dataSize, blockNumber, offset)) {
+                locations.put(blockNumber, ((long) segment << SEGMENT_ID_SHIFT) | offset);
+            }
+        }
+    }
+
+    private static boolean isCompleteRecord(MappedByteBuffer data, long dataSize, long blockNumber, long offset) {
+        if (offset < 0 || offset + RECORD_HEADER_SIZE > dataSize) {
+            return false;
+        }
+        int position = (int) offset;
+        int compressedLength = data.getInt(position + 12);
+        return data.getLong(position) == blockNumber && compressedLength >= 0
+                && offset + RECORD_HEADER_SIZE + compressedLength <= dataSize;
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "segment-*.dat")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                segments.add(Integer.parseInt(name.substring("segment-".length(), name.length() - ".dat".length())));
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path dataFile(int segment) {
+        return root.resolve(String.format("segment-%06d.dat", segment));
+    }
+
+    private Path indexFile(int segment) {
+        return root.resolve(String.format("segment-%06d.idx", segment));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int rawLength) throws IOException {
+        byte[] input = new byte[compressed.remaining()];
+        compressed.get(input);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[rawLength];
+            int length = inflater.inflate(output);
+            if (length != rawLength) {
+                throw new IOException("Corrupted archive record: expected " + rawLength + " bytes, got " + length);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted archive record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 离线重建服务
+ * <p>
+ * 从本地区块文件并行读取原始区块，用与实时同步相同的 {@link BlockConverter} 转换，
+ * 批量写入影子表 blocks_reindex / transactions_reindex，全部成功后用一条 RENAME TABLE 原子切换。
+ * 重建期间必须持有同步租约（{@link LeaderElectionService}）：其他实例不会写入正式表，切换时不会丢失它们写入的区块；
+ * 未持有租约时拒绝执行，重建中租约中断（任期变化）时放弃影子表。
+ * 影子表的区块号范围和行数必须与正式表一致（输入不完整，如归档晚于同步开启时拒绝切换），
+ * 上一次重建保留的 *_old 表需先手动删除。切换后进程退出，内存中的索引和统计在重新启动时从新表加载。
+ * 数据来源：
+ * <ul>
+ * <li>archive：{@link RawBlockArchiveService} 的分段文件，每个分段一个任务</li>
+ * <li>目录或文件路径：*.jsonl / *.jsonl.gz，每行一个 eth_getBlockByNumber(..., true) 结果，每个文件一个任务</li>
+ * </ul>
+ * 以命令方式运行：--blockchain.reindex.enabled=true --blockchain.reindex.source=archive
+ */
+@Slf4j
+@Service
+public class ReindexService implements ApplicationRunner {
+
+    public static final String ARCHIVE_SOURCE = "archive";
+
+    private static final TypeReference<Map<String, Object>> RAW_BLOCK = new TypeReference<Map<String, Object>>() {
+    };
+
+    @Autowired
+    private BlockConverter blockConverter;
+
+    @Autowired
+    private RawBlockArchiveService rawBlockArchiveService;
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${blockchain.reindex.enabled:false}")
+    private boolean enabled;
+
+    @Value("${blockchain.reindex.source:archive}")
+    private String source;
+
+    /**
+     * 并行度，0表示使用CPU核数
+     */
+    @Value("${blockchain.reindex.threads:0}")
+    private int threads;
+
+    /**
+     * 每次批量写入的区块数
+     */
+    @Value("${blockchain.reindex.batch-size:500}")
+    private int batchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile boolean running = false;
+
+    @PostConstruct
+    public void init() {
+        // 以命令方式启动时，从一开始就让同步任务让路
+        running = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (enabled) {
+            boolean swapped;
+            try {
+                swapped = reindex(source);
+            } finally {
+                running = false;
+            }
+            if (swapped) {
+                // 搜索索引、排行榜、手续费统计、预渲染响应等内存状态仍对应旧表
+                log.info("Re-index complete, exiting; restart to load in-memory state from the new tables");
+                System.exit(SpringApplication.exit(applicationContext, () -> 0));
+            }
+        }
+    }
+
+    /**
+     * 重建进行中时同步任务应暂停
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 执行重建
+     *
+     * @param source "archive" 或 JSON lines 文件/目录路径
+     * @return 是否已切换正式表
+     * @throws IllegalStateException 本实例未持有同步租约、重建期间失去租约、*_old 表仍存在，或输入未覆盖正式表
+     */
+    public synchronized boolean reindex(String source) throws Exception {
+        if (!leaderElectionService.isLeader()) {
+            throw new IllegalStateException("Re-index requires the sync lease, instance "
+                    + leaderElectionService.getInstanceId() + " is not the leader");
+        }
+        if (blockBulkRepository.oldTablesExist()) {
+            throw new IllegalStateException("Tables from the previous re-index (*" + BlockBulkRepository.OLD_SUFFIX
+                    + ") still exist, drop them before re-indexing");
+        }
+        long term = leaderElectionService.getTerm();
+        List<Callable<long[]>> tasks = buildTasks(source, term);
+        if (tasks.isEmpty()) {
+            log.warn("No re-index input found in {}", source);
+            return false;
+        }
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        long start = System.currentTimeMillis();
+        running = true;
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        try {
+            blockBulkRepository.createShadowTables();
+            log.info("Re-indexing from {} with {} tasks on {} threads", source, tasks.size(), poolSize);
+
+            long blocks = 0;
+            long transactions = 0;
+            try {
+                for (Future<long[]> future : pool.invokeAll(tasks)) {
+                    long[] counts = future.get();
+                    blocks += counts[0];
+                    transactions += counts[1];
+                }
+            } catch (ExecutionException e) {
+                blockBulkRepository.dropShadowTables();
+                throw new IllegalStateException("Re-index failed, live tables left untouched", e.getCause());
+            }
+
+            // 同步已暂停、其他实例不持有租约，正式表在此期间不变
+            String mismatch = checkCoverage();
+            if (mismatch != null) {
+                blockBulkRepository.dropShadowTables();
+                throw new IllegalStateException("Re-index input does not cover the live tables (" + mismatch
+                        + "), live tables left untouched");
+            }
+
+            // 切换前续约一次，保证 RENAME TABLE 执行时租约仍在有效期内
+            leaderElectionService.renew();
+            if (!holdsLease(term)) {
+                blockBulkRepository.dropShadowTables();
+                throw new IllegalStateException("Sync lease lost during re-index, live tables left untouched");
+            }
+            blockBulkRepository.swapShadowTables();
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            log.info("Re-indexed {} blocks and {} transactions in {} ms ({} blocks/s), previous tables kept as *{}",
+                    blocks, transactions, elapsed, blocks * 1000 / elapsed, BlockBulkRepository.OLD_SUFFIX);
+            return true;
+        } finally {
+            pool.shutdownNow();
+            running = false;
+        }
+    }
+
+    /**
+     * 比较影子表与正式表的区块号范围和行数
+     *
+     * @return 一致时返回null，否则返回差异描述
+     */
+    private String checkCoverage() {
+        String shadowBlocks = BlockBulkRepository.BLOCKS + BlockBulkRepository.SHADOW_SUFFIX;
+        long[] live = blockBulkRepository.blockRange(BlockBulkRepository.BLOCKS);
+        long[] shadow = blockBulkRepository.blockRange(shadowBlocks);
+        if (!Arrays.equals(live, shadow)) {
+            return String.format("blocks %d-%d (%d rows) vs re-indexed %d-%d (%d rows)",
+                    live[0], live[1], live[2], shadow[0], shadow[1], shadow[2]);
+        }
+        long liveTransactions = blockBulkRepository.countRows(BlockBulkRepository.TRANSACTIONS);
+        long shadowTransactions = blockBulkRepository.countRows(
+                BlockBulkRepository.TRANSACTIONS + BlockBulkRepository.SHADOW_SUFFIX);
+        if (liveTransactions != shadowTransactions) {
+            return liveTransactions + " transactions vs re-indexed " + shadowTransactions;
+        }
+        return null;
+    }
+
+    /**
+     * 本实例仍持有租约，且期间没有中断过（中断时其他实例可能写入了正式表）
+     */
+    private boolean holdsLease(long term) {
+        return leaderElectionService.isLeader() && leaderElectionService.getTerm() == term;
+    }
+
+    private List<Callable<long[]>> buildTasks(String source, long term) throws IOException {
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        if (ARCHIVE_SOURCE.equals(source)) {
+            if (!rawBlockArchiveService.isEnabled()) {
+                throw new IllegalStateException("Re-index source is archive but blockchain.archive.enabled=false");
+            }
+            for (int segment : rawBlockArchiveService.listSegmentIds()) {
+                tasks.add(() -> loadArchiveSegment(segment, term));
+            }
+            return tasks;
+        }
+
+        Path path = Paths.get(source);
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.list(path)) {
+                files = stream.filter(p -> p.getFileName().toString().matches(".*\\.jsonl(\\.gz)?"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            files = List.of(path);
+        }
+        for (Path file : files) {
+            tasks.add(() -> loadJsonLines(file, term));
+        }
+        return tasks;
+    }
+
+    private long[] loadArchiveSegment(int segment, long term) throws IOException {
+        Batch batch = new Batch(term);
+        for (long blockNumber : rawBlockArchiveService.listBlockNumbers(segment)) {
+            byte[] json = rawBlockArchiveService.read(blockNumber);
+            batch.add(blockConverter.convertRawBlock(objectMapper.readValue(json, RAW_BLOCK)));
+        }
+        batch.flush();
+        log.info("Re-indexed archive segment {}: {} blocks", segment, batch.blocks);
+        return new long[] { batch.blocks, batch.transactions };
+    }
+
+    private long[] loadJsonLines(Path file, long term) throws IOException {
+        Batch batch = new Batch(term);
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    batch.add(blockConverter.convertRawBlock(objectMapper.readValue(line, RAW_BLOCK)));
+                }
+            }
+        }
+        batch.flush();
+        log.info("Re-indexed {}: {} blocks", file, batch.blocks);
+        return new long[] { batch.blocks, batch.transactions };
+    }
+
+    /**
+     * 单个任务的写入缓冲，每 batchSize 个区块批量写一次影子表，写入前检查租约，失去租约时尽早失败
+     */
+    private class Batch {
+        private final long term;
+        private final List<Block> pendingBlocks = new ArrayList<>(batchSize);
+        private final List<Transaction> pendingTransactions = new ArrayList<>();
+        private long blocks;
+        private long transactions;
+
+        Batch(long term) {
+            this.term = term;
+        }
+
+        void add(BlockConverter.ConvertedBlock converted) {
+            pendingBlocks.add(converted.getBlock());
+            pendingTransactions.addAll(converted.getTransactions());
+            if (pendingBlocks.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!holdsLease(term)) {
+                throw new IllegalStateException("Sync lease lost during re-index");
+            }
+            if (!pendingBlocks.isEmpty()) {
+                blockBulkRepository.insertBlocks(BlockBulkRepository.BLOCKS + BlockBulkRepository.SHADOW_SUFFIX,
+                        pendingBlocks);
+            }
+            if (!pendingTransactions.isEmpty()) {
+                blockBulkRepository.insertTransactions(
+                        BlockBulkRepository.TRANSACTIONS + BlockBulkRepository.SHADOW_SUFFIX, pendingTransactions);
+            }
+            blocks += pendingBlocks.size();
+            transactions += pendingTransactions.size();
+            pendingBlocks.clear();
+            pendingTransactions.clear();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 已确认区块的预渲染响应
+ * <p>
+ * 区块和区块交易列表在确认（不超过 已索引最新区块 - finality-depth）后内容不再变化，
+ * 第一次请求时用应用的 ObjectMapper 序列化并 gzip 压缩一次，之后的请求直接写出同一份字节，
+ * 不再经过 Jackson（BigInteger、LocalDateTime 的格式化）和压缩。
+ * 按压缩后的字节数做LRU淘汰。交易列表带有污点标记，区块内的交易被新标记为污点后只作废该区块的交易列表。
+ * 区块只按区块号保存一份，区块哈希映射到区块号，随区块条目一起淘汰。
+ */
+@Service
+public class RenderedBlockStore {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private TaintRegistryService taintRegistryService;
+
+    @Value("${blockchain.rendered.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 压缩后响应体占用的内存上限（字节）
+     */
+    @Value("${blockchain.rendered.max-bytes:134217728}")
+    private long maxBytes;
+
+    /**
+     * 低于已索引最新区块多少个区块视为已确认
+     */
+    @Value("${blockchain.rendered.finality-depth:12}")
+    private long finalityDepth;
+
+    /**
+     * 键 -> 压缩后的响应体（按访问顺序）
+     */
+    private final LinkedHashMap<String, Rendered> bodies = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 区块哈希 -> 区块号（只包含已渲染的区块，受 bodies 锁保护）
+     */
+    private final Map<String, BigInteger> blockNumbersByHash = new HashMap<>();
+
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按区块号获取已渲染的区块，未渲染返回null
+     */
+    public byte[] getBlock(BigInteger blockNumber) {
+        return get("block:" + blockNumber, -1);
+    }
+
+    /**
+     * 按区块哈希获取已渲染的区块，未渲染返回null
+     */
+    public byte[] getBlockByHash(String blockHash) {
+        if (!enabled) {
+            return null;
+        }
+        BigInteger blockNumber;
+        synchronized (bodies) {
+            blockNumber = blockNumbersByHash.get(blockHash.toLowerCase(Locale.ROOT));
+        }
+        if (blockNumber == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        return getBlock(blockNumber);
+    }
+
+    /**
+     * 获取已渲染的区块交易列表，未渲染或污点标记已变化时返回null
+     */
+    public byte[] getTransactions(BigInteger blockNumber) {
+        return get("txs:" + blockNumber, taintRegistryService.getBlockVersion(blockNumber));
+    }
+
+    /**
+     * 渲染并保存区块（未确认的区块不保存）
+     *
+     * @return 压缩后的响应体，未启用或区块未确认时返回null
+     */
+    public byte[] putBlock(Block block) {
+        if (!isRenderable(block.getBlockNumber())) {
+            return null;
+        }
+        byte[] body = render(block);
+        String blockHash = block.getBlockHash().toLowerCase(Locale.ROOT);
+        synchronized (bodies) {
+            store("block:" + block.getBlockNumber(), new Rendered(body, -1, blockHash));
+            if (bodies.containsKey("block:" + block.getBlockNumber())) {
+                blockNumbersByHash.put(blockHash, block.getBlockNumber());
+            }
+        }
+        return body;
+    }
+
+    /**
+     * 为区块交易列表标记污点，并渲染保存（未确认的区块不保存）
+     *
+     * @return 压缩后的响应体，未启用或区块未确认时返回null
+     */
+    public byte[] putTransactions(BigInteger blockNumber, List<Transaction> transactions) {
+        // 先读版本再查询污点标记：之后提交的污点登记会使该条目在下次读取时作废
+        long version = taintRegistryService.getBlockVersion(blockNumber);
+        taintRegistryService.markTainted(transactions);
+        if (!isRenderable(blockNumber)) {
+            return null;
+        }
+        byte[] body = render(transactions);
+        synchronized (bodies) {
+            store("txs:" + blockNumber, new Rendered(body, version, null));
+        }
+        return body;
+    }
+
+    /**
+     * 直接写出压缩后的响应体；客户端不接受 gzip 时解压后返回
+     */
+    public static ResponseEntity<byte[]> toResponse(byte[] body, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body);
+        }
+        return builder.body(gunzip(body));
+    }
+
+    /**
+     * 按 Accept-Encoding 的 q 值判断客户端是否接受 gzip：gzip（或未单独列出 gzip 时的 *）的 q 大于0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && param.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip")) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                wildcard = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    /**
+     * 存储指标
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        synchronized (bodies) {
+            status.put("entries", bodies.size());
+            status.put("bytes", totalBytes);
+        }
+        status.put("maxBytes", maxBytes);
+        status.put("hits", hits.get());
+        status.put("misses", misses.get());
+        return status;
+    }
+
+    private boolean isRenderable(BigInteger blockNumber) {
+        long indexedTip = searchIndexService.getMaxBlockNumber();
+        return enabled && indexedTip >= 0
+                && blockNumber.compareTo(BigInteger.valueOf(indexedTip - finalityDepth)) <= 0;
+    }
+
+    private byte[] get(String key, long version) {
+        if (!enabled) {
+            return null;
+        }
+        Rendered rendered;
+        synchronized (bodies) {
+            rendered = bodies.get(key);
+        }
+        if (rendered == null || rendered.version != version) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return rendered.body;
+    }
+
+    /**
+     * 保存并按字节数淘汰最久未访问的条目（调用方持有 bodies 锁）
+     */
+    private void store(String key, Rendered rendered) {
+        Rendered previous = bodies.put(key, rendered);
+        if (previous != null) {
+            totalBytes -= previous.body.length;
+            if (previous.blockHash != null && !previous.blockHash.equals(rendered.blockHash)) {
+                blockNumbersByHash.remove(previous.blockHash);
+            }
+        }
+        totalBytes += rendered.body.length;
+
+        Iterator<Rendered> eldest = bodies.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Rendered evicted = eldest.next();
+            totalBytes -= evicted.body.length;
+            if (evicted.blockHash != null) {
+                blockNumbersByHash.remove(evicted.blockHash);
+            }
+            eldest.remove();
+        }
+    }
+
+    private byte[] render(Object value) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                objectMapper.writeValue(gzip, value);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 压缩后的响应体，version 为渲染时该区块的污点登记版本（区块为-1），blockHash 仅区块条目有
+     */
+    private static class Rendered {
+        private final byte[] body;
+        private final long version;
+        private final String blockHash;
+
+        Rendered(byte[] body, long version, String blockHash) {
+            this.body = body;
+            this.version = version;
+            this.blockHash = blockHash;
+        }
+    }
+}
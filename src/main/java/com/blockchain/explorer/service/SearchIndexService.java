@@ -0,0 +1,262 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.AccountState;
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.AccountStateRepository;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索索引服务
+ * 在内存中维护已索引的区块哈希、交易哈希、地址的布隆过滤器；地址前缀补全走 account_states 的地址唯一索引。
+ * 过滤器判定不存在时无需访问数据库（搜索、按哈希查询区块和交易都先经过过滤器）；
+ * 启动时在后台从数据库加载，加载完成前查询直接走数据库。同步写库前登记，其他节点写入的区块在重放时登记，
+ * 因此只有追上数据库的领导节点才以过滤器结果代替数据库查询。
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountStateRepository accountStateRepository;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Value("${blockchain.search.expected-blocks:5000000}")
+    private long expectedBlocks;
+
+    @Value("${blockchain.search.expected-transactions:20000000}")
+    private long expectedTransactions;
+
+    @Value("${blockchain.search.expected-addresses:2000000}")
+    private long expectedAddresses;
+
+    @Value("${blockchain.search.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter blockHashes;
+    private BloomFilter txHashes;
+    private BloomFilter addresses;
+
+    /**
+     * 已索引的最大区块号，-1表示尚无区块
+     */
+    private final AtomicLong maxBlockNumber = new AtomicLong(-1);
+
+    private volatile boolean ready = false;
+
+    /**
+     * 本节点作为领导节点重放完数据库时的任期，-1表示尚未追上
+     * 同一任期内只有本节点写库，且写库前先登记，过滤器覆盖数据库中的全部区块
+     */
+    private volatile long coveredTerm = -1;
+
+    /**
+     * 判定不存在、未查询数据库的次数
+     */
+    private final AtomicLong negativeLookups = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        blockHashes = new BloomFilter(expectedBlocks, falsePositiveRate);
+        txHashes = new BloomFilter(expectedTransactions, falsePositiveRate);
+        addresses = new BloomFilter(expectedAddresses, falsePositiveRate);
+        log.info("Search index filters allocated: blocks={}KB, transactions={}KB, addresses={}KB",
+                blockHashes.getMemoryBytes() / 1024, txHashes.getMemoryBytes() / 1024,
+                addresses.getMemoryBytes() / 1024);
+    }
+
+    /**
+     * 应用启动完成后在后台线程加载已有数据，避免阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 登记新区块及其交易（含合约创建交易生成的合约地址，与写入 account_states 的地址一致）
+     * 同步流程在写库之前调用，跟随节点在重放时调用，保证过滤器不会对已入库的数据给出“不存在”
+     */
+    public void register(Block block, List<Transaction> transactions) {
+        blockHashes.put(normalize(block.getBlockHash()));
+        addAddress(block.getMiner());
+        for (Transaction transaction : transactions) {
+            txHashes.put(normalize(transaction.getTxHash()));
+            addAddress(transaction.getFromAddress());
+            addAddress(transaction.getToAddress() != null ? transaction.getToAddress()
+                    : ContractRegistryService.createdAddress(transaction));
+        }
+        maxBlockNumber.accumulateAndGet(block.getBlockNumber().longValue(), Math::max);
+    }
+
+    /**
+     * 登记同步流程之外写入 account_states 的地址（如手动刷新账户），需在写库前调用
+     */
+    public void registerAddress(String address) {
+        addAddress(address);
+    }
+
+    /**
+     * 索引是否已加载完成（未完成时过滤器结果不可信）
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 同步在本节点为领导节点时重放完数据库后调用
+     */
+    public void markCaughtUp(long term) {
+        coveredTerm = term;
+    }
+
+    /**
+     * 过滤器是否覆盖数据库中的全部数据：加载完成，且本节点在追上数据库后一直持有租约
+     * 跟随节点只在重放时登记其他节点写入的区块，判定不存在时仍需查询数据库
+     */
+    public boolean coversDatabase() {
+        return ready && leaderElectionService.isLeader() && coveredTerm == leaderElectionService.getTerm();
+    }
+
+    public boolean mightContainBlockHash(String blockHash) {
+        return !coversDatabase() || counted(blockHashes.mightContain(normalize(blockHash)));
+    }
+
+    public boolean mightContainTxHash(String txHash) {
+        return !coversDatabase() || counted(txHashes.mightContain(normalize(txHash)));
+    }
+
+    public boolean mightContainAddress(String address) {
+        return !coversDatabase() || counted(addresses.mightContain(normalize(address)));
+    }
+
+    public boolean mightContainBlockNumber(BigInteger blockNumber) {
+        return !coversDatabase() || counted(blockNumber.compareTo(BigInteger.valueOf(maxBlockNumber.get())) <= 0);
+    }
+
+    /**
+     * 已索引的最大区块号，-1表示尚无区块
+     */
+    public long getMaxBlockNumber() {
+        return maxBlockNumber.get();
+    }
+
+    /**
+     * 地址前缀补全：地址唯一索引上的范围扫描，取到 limit 条即停止（不在内存中保存完整地址）
+     */
+    public List<String> completeAddress(String prefix, int limit) {
+        return accountStateRepository.findTop10ByAddressStartingWithOrderByAddressAsc(normalize(prefix)).stream()
+                .map(AccountState::getAddress)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 索引状态
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("coversDatabase", coversDatabase());
+        stats.put("maxBlockNumber", maxBlockNumber.get());
+        stats.put("negativeLookups", negativeLookups.get());
+        stats.put("blockFilterBytes", blockHashes.getMemoryBytes());
+        stats.put("txFilterBytes", txHashes.getMemoryBytes());
+        stats.put("addressFilterBytes", addresses.getMemoryBytes());
+        return stats;
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private boolean counted(boolean mightContain) {
+        if (!mightContain) {
+            negativeLookups.incrementAndGet();
+        }
+        return mightContain;
+    }
+
+    private void addAddress(String address) {
+        if (address == null) {
+            return;
+        }
+        String normalized = normalize(address);
+        addresses.put(normalized);
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            long blocks = scan(blockRepository::findHashesAfterId, row -> {
+                blockHashes.put(normalize((String) row[1]));
+                addAddress((String) row[2]);
+                maxBlockNumber.accumulateAndGet(((BigInteger) row[3]).longValue(), Math::max);
+            });
+            long transactions = scan(transactionRepository::findHashesAfterId, row -> {
+                txHashes.put(normalize((String) row[1]));
+                addAddress((String) row[2]);
+                addAddress((String) row[3]);
+            });
+            long accounts = scan(accountStateRepository::findAddressesAfterId,
+                    row -> addAddress((String) row[1]));
+
+            ready = true;
+            log.info("Search index loaded {} blocks, {} transactions, {} accounts in {} ms",
+                    blocks, transactions, accounts, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load search index, lookups will fall back to database", e);
+        }
+    }
+
+    /**
+     * 按主键游标分页扫描，每行第一列为id
+     */
+    private long scan(BiFunction<Long, PageRequest, List<Object[]>> query, Consumer<Object[]> consumer) {
+        long afterId = 0;
+        long total = 0;
+        while (true) {
+            List<Object[]> rows = query.apply(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                consumer.accept(row);
+            }
+            total += rows.size();
+            if (rows.size() < LOAD_PAGE_SIZE) {
+                return total;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.TaintedTransaction;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.repository.TaintedTransactionRepository;
+import com.blockchain.explorer.repository.TransactionRepository;
+import com.blockchain.explorer.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 污点交易登记服务
+ * <p>
+ * 同步时把区块 tainted 字段解析为 tainted_transactions 表（按交易哈希、区块号、地址建索引），
+ * 并维护交易哈希和地址的布隆过滤器：过滤器判定不存在时直接返回未污染，不查询数据库；
+ * 只有判定可能存在时才用索引确认。污点交易很少，绝大多数查询不产生额外SQL。
+ * 标记时交易尚未入库的记录没有地址，交易所在区块入库（或被重放）时补填地址并登记到地址过滤器。
+ */
+@Slf4j
+@Service
+public class TaintRegistryService {
+
+    /**
+     * tainted 中的交易哈希：JSON数组 / 逗号分隔 / 连续拼接的32字节哈希
+     */
+    private static final Pattern TX_HASH = Pattern.compile("0x[0-9a-fA-F]{64}");
+    private static final Pattern PACKED_HASHES = Pattern.compile("0x(?:[0-9a-fA-F]{64})+");
+    private static final int HASH_HEX_LENGTH = 64;
+
+    @Autowired
+    private TaintedTransactionRepository taintedTransactionRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${blockchain.tainted.expected-transactions:1000000}")
+    private long expectedTransactions;
+
+    @Value("${blockchain.tainted.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private BloomFilter txFilter;
+    private BloomFilter addressFilter;
+
+    /**
+     * 区块号 -> 启动后该区块内的交易被标记为污点的次数（已渲染的交易列表据此判断是否过期）
+     */
+    private final Map<BigInteger, Long> blockVersions = new ConcurrentHashMap<>();
+
+    /**
+     * 尚未补填地址的污点交易哈希（很少），已补填的在下次启动时不再加载
+     */
+    private final Set<String> unresolved = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        txFilter = new BloomFilter(expectedTransactions, falsePositiveRate);
+        addressFilter = new BloomFilter(expectedTransactions * 2, falsePositiveRate);
+
+        List<Object[]> keys = taintedTransactionRepository.findAllKeys();
+        for (Object[] key : keys) {
+            register((String) key[0], (String) key[1], (String) key[2]);
+            if (key[1] == null) {
+                unresolved.add((String) key[0]);
+            }
+        }
+        log.info("Tainted transaction registry loaded {} entries ({} KB)", keys.size(),
+                (txFilter.getMemoryBytes() + addressFilter.getMemoryBytes()) / 1024);
+    }
+
+    /**
+     * 解析已入库区块的 tainted 字段并登记
+     *
+     * @return 被标记的交易所在的区块，写入事务提交后传给 {@link #onCommitted}
+     */
+    public Set<BigInteger> onBlock(Block block, List<Transaction> transactions) {
+        Set<BigInteger> containingBlocks = new HashSet<>();
+        List<String> hashes = parseTxHashes(block.getTainted());
+        if (!hashes.isEmpty()) {
+            markTransactions(block, transactions, hashes, containingBlocks);
+        }
+
+        // 之前标记、本区块才入库的交易：补填地址
+        for (Transaction transaction : resolvable(transactions)) {
+            String hash = normalize(transaction.getTxHash());
+            String from = normalize(transaction.getFromAddress());
+            String to = normalize(transaction.getToAddress());
+            if (taintedTransactionRepository.resolveAddresses(hash, from, to) > 0) {
+                register(hash, from, to);
+                containingBlocks.add(transaction.getBlockNumber());
+            }
+        }
+        return containingBlocks;
+    }
+
+    private void markTransactions(Block block, List<Transaction> transactions, List<String> hashes,
+            Set<BigInteger> containingBlocks) {
+        Map<String, Transaction> byHash = new HashMap<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            byHash.put(normalize(transaction.getTxHash()), transaction);
+        }
+
+        List<TaintedTransaction> entries = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            if (txFilter.mightContain(hash) && taintedTransactionRepository.existsByTxHash(hash)) {
+                continue;
+            }
+            // 标记的交易通常在本区块内，否则回查已入库的交易
+            Transaction transaction = byHash.get(hash);
+            if (transaction == null) {
+                transaction = transactionRepository.findByTxHash(hash).orElse(null);
+            }
+
+            TaintedTransaction entry = new TaintedTransaction();
+            entry.setTxHash(hash);
+            entry.setBlockNumber(block.getBlockNumber());
+            if (transaction != null) {
+                entry.setFromAddress(normalize(transaction.getFromAddress()));
+                entry.setToAddress(normalize(transaction.getToAddress()));
+                containingBlocks.add(transaction.getBlockNumber());
+            }
+            entries.add(entry);
+        }
+        taintedTransactionRepository.saveAll(entries);
+
+        for (TaintedTransaction entry : entries) {
+            register(entry.getTxHash(), entry.getFromAddress(), entry.getToAddress());
+            if (entry.getFromAddress() == null) {
+                unresolved.add(entry.getTxHash());
+            }
+        }
+        log.info("Block {} marked {} tainted transactions", block.getBlockNumber(), entries.size());
+    }
+
+    /**
+     * 区块内尚未补填地址的污点交易（先经过交易哈希过滤器）
+     */
+    private List<Transaction> resolvable(List<Transaction> transactions) {
+        if (unresolved.isEmpty()) {
+            return List.of();
+        }
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            String hash = normalize(transaction.getTxHash());
+            if (hash != null && txFilter.mightContain(hash) && unresolved.contains(hash)) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 污点登记提交后调用：更新所在区块的登记版本（提交前更新会让并发请求按未提交的数据渲染新版本）
+     */
+    public void onCommitted(Collection<BigInteger> containingBlocks) {
+        for (BigInteger blockNumber : containingBlocks) {
+            blockVersions.merge(blockNumber, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 其他节点写入的区块：从已登记的记录更新本节点的过滤器
+     */
+    public void onReplicatedBlock(Block block, List<Transaction> transactions) {
+        // 之前标记、本区块才入库的交易（领导节点已补填地址）
+        for (Transaction transaction : resolvable(transactions)) {
+            register(normalize(transaction.getTxHash()), normalize(transaction.getFromAddress()),
+                    normalize(transaction.getToAddress()));
+            onCommitted(List.of(transaction.getBlockNumber()));
+        }
+        if (parseTxHashes(block.getTainted()).isEmpty()) {
+            return;
+        }
+        for (TaintedTransaction entry : taintedTransactionRepository.findByBlockNumber(block.getBlockNumber())) {
+            // 登记记录中的区块号是标记所在的区块，交易本身可能在更早的区块
+            register(entry.getTxHash(), entry.getFromAddress(), entry.getToAddress());
+            if (entry.getFromAddress() == null) {
+                unresolved.add(entry.getTxHash());
+            }
+            transactionRepository.findByTxHash(entry.getTxHash())
+                    .ifPresent(transaction -> onCommitted(List.of(transaction.getBlockNumber())));
+        }
+    }
+
+    /**
+     * 区块的污点登记版本，该区块内的交易被新标记为污点后变化
+     */
+    public long getBlockVersion(BigInteger blockNumber) {
+        return blockVersions.getOrDefault(blockNumber, 0L);
+    }
+
+    /**
+     * 交易是否被标记为污点（过滤器未命中时不查询数据库）
+     */
+    public boolean isTainted(String txHash) {
+        String hash = normalize(txHash);
+        return hash != null && txFilter.mightContain(hash) && taintedTransactionRepository.existsByTxHash(hash);
+    }
+
+    /**
+     * 地址是否涉及污点交易（过滤器未命中时不查询数据库）
+     */
+    public boolean isAddressTainted(String address) {
+        String normalized = normalize(address);
+        return normalized != null && addressFilter.mightContain(normalized)
+                && taintedTransactionRepository.existsByAddress(normalized);
+    }
+
+    /**
+     * 为查询结果填充 tainted 标记
+     */
+    public void markTainted(Collection<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            transaction.setTainted(isTainted(transaction.getTxHash()));
+        }
+    }
+
+    /**
+     * 解析 tainted 字段，兼容 JSON 数组、逗号分隔和连续拼接的哈希，去重并保持原顺序
+     */
+    static List<String> parseTxHashes(String tainted) {
+        if (tainted == null || tainted.isBlank()) {
+            return List.of();
+        }
+        Set<String> hashes = new LinkedHashSet<>();
+        String trimmed = tainted.trim();
+        if (PACKED_HASHES.matcher(trimmed).matches()) {
+            for (int i = 2; i < trimmed.length(); i += HASH_HEX_LENGTH) {
+                hashes.add("0x" + trimmed.substring(i, i + HASH_HEX_LENGTH).toLowerCase(Locale.ROOT));
+            }
+        } else {
+            Matcher matcher = TX_HASH.matcher(trimmed);
+            while (matcher.find()) {
+                hashes.add(matcher.group().toLowerCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(hashes);
+    }
+
+    private void register(String txHash, String fromAddress, String toAddress) {
+        txFilter.put(txHash);
+        if (fromAddress != null) {
+            addressFilter.put(fromAddress);
+        }
+        if (toAddress != null) {
+            addressFilter.put(toAddress);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
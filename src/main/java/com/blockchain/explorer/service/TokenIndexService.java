@@ -0,0 +1,163 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.EventLog;
+import com.blockchain.explorer.entity.TokenBalance;
+import com.blockchain.explorer.entity.TokenTransfer;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.blockchain.explorer.repository.TokenTransferRepository;
+import com.blockchain.explorer.util.HexQuantity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 代币索引服务
+ * <p>
+ * 在事件日志入库的同一事务中识别 Transfer(address,address,uint256) 事件：
+ * 3个 topic 为 ERC-20（data 为数量），4个 topic 为 ERC-721（第4个 topic 为 tokenId）。
+ * 转账写入 token_transfers，持有者余额按 (holder, token) 汇总变动量后批量 upsert 到 token_balances，
+ * 代币页面和持有者页面都只需一次索引读取，无需调用节点 balanceOf。
+ */
+@Slf4j
+@Service
+public class TokenIndexService {
+
+    /**
+     * keccak256("Transfer(address,address,uint256)")
+     */
+    public static final String TRANSFER_TOPIC = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    public static final String ZERO_ADDRESS = "0x0000000000000000000000000000000000000000";
+
+    /**
+     * DECIMAL(65,0) 能存放的最大值，超出的数量（如 2^256-1 的垃圾代币）不索引
+     */
+    private static final BigInteger MAX_STORED_VALUE = BigInteger.TEN.pow(65).subtract(BigInteger.ONE);
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private TokenTransferRepository tokenTransferRepository;
+
+    /**
+     * 处理一个区块范围的日志（须在日志写入的事务内调用）
+     * 同一范围重复处理时先回退已有转账对余额的影响，保证幂等
+     */
+    public void onLogs(BigInteger fromBlock, BigInteger toBlock, List<EventLog> logs) {
+        List<TokenTransfer> transfers = new ArrayList<>();
+        for (EventLog eventLog : logs) {
+            TokenTransfer transfer = parseTransfer(eventLog);
+            if (transfer != null) {
+                transfers.add(transfer);
+            }
+        }
+
+        Map<String, TokenBalance> deltas = new LinkedHashMap<>();
+        List<TokenTransfer> previous = tokenTransferRepository.findByBlockNumberBetween(fromBlock, toBlock);
+        if (!previous.isEmpty()) {
+            for (TokenTransfer transfer : previous) {
+                applyTransfer(deltas, transfer, true);
+            }
+            blockBulkRepository.deleteTokenTransfers(fromBlock, toBlock);
+        }
+        if (transfers.isEmpty() && deltas.isEmpty()) {
+            return;
+        }
+
+        for (TokenTransfer transfer : transfers) {
+            applyTransfer(deltas, transfer, false);
+        }
+        if (!transfers.isEmpty()) {
+            blockBulkRepository.insertTokenTransfers(transfers);
+        }
+
+        List<TokenBalance> changed = new ArrayList<>(deltas.size());
+        for (TokenBalance delta : deltas.values()) {
+            if (delta.getBalance().signum() != 0) {
+                changed.add(delta);
+            }
+        }
+        if (!changed.isEmpty()) {
+            blockBulkRepository.addTokenBalances(changed);
+        }
+        log.debug("Indexed {} token transfers ({} balance changes) in blocks {}-{}",
+                transfers.size(), changed.size(), fromBlock, toBlock);
+    }
+
+    /**
+     * 解析 Transfer 事件，不是转账事件时返回null
+     */
+    static TokenTransfer parseTransfer(EventLog eventLog) {
+        if (!TRANSFER_TOPIC.equals(eventLog.getTopic0()) || eventLog.getTopic1() == null
+                || eventLog.getTopic2() == null) {
+            return null;
+        }
+
+        TokenTransfer transfer = new TokenTransfer();
+        transfer.setBlockNumber(eventLog.getBlockNumber());
+        transfer.setLogIndex(eventLog.getLogIndex());
+        transfer.setTxHash(eventLog.getTxHash());
+        transfer.setToken(eventLog.getAddress());
+        transfer.setFromAddress(topicToAddress(eventLog.getTopic1()));
+        transfer.setToAddress(topicToAddress(eventLog.getTopic2()));
+        try {
+            if (eventLog.getTopic3() != null) {
+                BigInteger tokenId = HexQuantity.toBigInteger(eventLog.getTopic3());
+                transfer.setStandard(TokenTransfer.ERC721);
+                transfer.setTokenId(tokenId.compareTo(MAX_STORED_VALUE) <= 0 ? tokenId : null);
+                transfer.setValue(BigInteger.ONE);
+            } else {
+                String data = eventLog.getData();
+                if (data == null || data.length() < 3) {
+                    return null;
+                }
+                BigInteger value = HexQuantity.toBigInteger(data.length() > 66 ? data.substring(0, 66) : data);
+                if (value.compareTo(MAX_STORED_VALUE) > 0) {
+                    return null;
+                }
+                transfer.setStandard(TokenTransfer.ERC20);
+                transfer.setValue(value);
+            }
+        } catch (NumberFormatException e) {
+            // 非标准合约的同名事件
+            return null;
+        }
+        return transfer;
+    }
+
+    private static void applyTransfer(Map<String, TokenBalance> deltas, TokenTransfer transfer, boolean revert) {
+        BigInteger value = revert ? transfer.getValue().negate() : transfer.getValue();
+        if (!ZERO_ADDRESS.equals(transfer.getFromAddress())) {
+            addDelta(deltas, transfer.getFromAddress(), transfer, value.negate());
+        }
+        if (!ZERO_ADDRESS.equals(transfer.getToAddress())) {
+            addDelta(deltas, transfer.getToAddress(), transfer, value);
+        }
+    }
+
+    private static void addDelta(Map<String, TokenBalance> deltas, String holder, TokenTransfer transfer,
+            BigInteger amount) {
+        TokenBalance delta = deltas.computeIfAbsent(holder + transfer.getToken(), key -> {
+            TokenBalance created = new TokenBalance();
+            created.setHolder(holder);
+            created.setToken(transfer.getToken());
+            created.setBalance(BigInteger.ZERO);
+            return created;
+        });
+        delta.setBalance(delta.getBalance().add(amount));
+        if (delta.getLastBlock() == null || delta.getLastBlock().compareTo(transfer.getBlockNumber()) < 0) {
+            delta.setLastBlock(transfer.getBlockNumber());
+        }
+    }
+
+    private static String topicToAddress(String topic) {
+        return "0x" + topic.substring(topic.length() - 40);
+    }
+}
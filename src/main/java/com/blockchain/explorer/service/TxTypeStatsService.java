@@ -0,0 +1,169 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.Transaction;
+import com.blockchain.explorer.entity.TxTypeDailyStats;
+import com.blockchain.explorer.repository.TxTypeDailyStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 交易类型统计服务
+ * <p>
+ * 内存中按类型维护累计交易数（/api/transactions/types 不查库），
+ * 同时增量更新 tx_type_daily_stats 日汇总，"类型构成随时间变化"只需按日期范围读取汇总表。
+ * 启动时由汇总表初始化计数器，不扫描 transactions。
+ * 注意：统计只包含开始解析交易类型之后同步的交易，更早入库的交易 txType 为空，
+ * 不计入计数器和日汇总，按类型查询也查不到（从原始区块离线重建可补全 transactions.tx_type，但不重算本汇总）。
+ */
+@Slf4j
+@Service
+public class TxTypeStatsService {
+
+    /**
+     * 私链交易类型名称，下标即类型值
+     */
+    public static final String[] TYPE_NAMES = {
+            "Legacy", "AccessList", "DynamicFee", "Blob", "Pow", "DynamicCrypto", "Deposit", "Nested"
+    };
+
+    /**
+     * 最后一个槽位统计未知类型
+     */
+    private static final int UNKNOWN = TYPE_NAMES.length;
+
+    /**
+     * 未知类型在日汇总表中的 txType 值
+     */
+    private static final int UNKNOWN_TYPE = -1;
+
+    @Autowired
+    private TxTypeDailyStatsRepository txTypeDailyStatsRepository;
+
+    private final AtomicLongArray counts = new AtomicLongArray(TYPE_NAMES.length + 1);
+
+    @PostConstruct
+    public void init() {
+        for (Object[] row : txTypeDailyStatsRepository.sumByTxType()) {
+            // 未知类型存为 -1，同样归入最后一个槽位
+            counts.addAndGet(slot((Integer) row[0]), ((Number) row[1]).longValue());
+        }
+        log.info("Transaction type counters initialized: {}", getCounts());
+    }
+
+    /**
+     * 解析类型名称或数值（如 "Pow"、"4"、"0x4"）
+     *
+     * @return 无法识别时返回null
+     */
+    public static Integer parseType(String value) {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if (TYPE_NAMES[i].equalsIgnoreCase(value)) {
+                return i;
+            }
+        }
+        try {
+            int type = Integer.decode(value);
+            return type >= 0 && type < TYPE_NAMES.length ? type : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 更新已入库区块所在日期的汇总（在写入事务内调用，内存计数在提交后由 {@link #onCommitted} 累加）
+     */
+    public void onBlock(Block block, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long[] blockCounts = new long[TYPE_NAMES.length + 1];
+        for (Transaction transaction : transactions) {
+            blockCounts[slot(transaction.getTxType())]++;
+        }
+
+        LocalDate day = block.getTimestamp().toLocalDate();
+        Map<Integer, TxTypeDailyStats> existing = txTypeDailyStatsRepository.findByDay(day).stream()
+                .collect(Collectors.toMap(TxTypeDailyStats::getTxType, Function.identity()));
+        List<TxTypeDailyStats> changed = new ArrayList<>();
+        for (int slot = 0; slot <= UNKNOWN; slot++) {
+            if (blockCounts[slot] == 0) {
+                continue;
+            }
+            int type = slot == UNKNOWN ? UNKNOWN_TYPE : slot;
+            TxTypeDailyStats stats = existing.get(type);
+            if (stats == null) {
+                stats = new TxTypeDailyStats();
+                stats.setDay(day);
+                stats.setTxType(type);
+            }
+            stats.setTxCount(stats.getTxCount() + blockCounts[slot]);
+            changed.add(stats);
+        }
+        txTypeDailyStatsRepository.saveAll(changed);
+    }
+
+    /**
+     * 区块提交后（本节点写入或从数据库重放）累加内存计数
+     */
+    public void onCommitted(List<Transaction> transactions) {
+        long[] blockCounts = new long[TYPE_NAMES.length + 1];
+        for (Transaction transaction : transactions) {
+            blockCounts[slot(transaction.getTxType())]++;
+        }
+        addCounts(blockCounts);
+    }
+
+    /**
+     * 各类型累计交易数
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int type = 0; type < TYPE_NAMES.length; type++) {
+            result.put(TYPE_NAMES[type], counts.get(type));
+        }
+        result.put(typeName(UNKNOWN_TYPE), counts.get(UNKNOWN));
+        return result;
+    }
+
+    /**
+     * 按天的类型构成（读取汇总表）
+     */
+    public Map<LocalDate, Map<String, Long>> getDailyMix(LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, Map<String, Long>> result = new LinkedHashMap<>();
+        for (TxTypeDailyStats stats : txTypeDailyStatsRepository.findByDayBetweenOrderByDayAscTxTypeAsc(fromDay,
+                toDay)) {
+            result.computeIfAbsent(stats.getDay(), d -> new LinkedHashMap<>())
+                    .put(typeName(stats.getTxType()), stats.getTxCount());
+        }
+        return result;
+    }
+
+    private void addCounts(long[] blockCounts) {
+        for (int slot = 0; slot < blockCounts.length; slot++) {
+            if (blockCounts[slot] > 0) {
+                counts.addAndGet(slot, blockCounts[slot]);
+            }
+        }
+    }
+
+    private static String typeName(Integer type) {
+        int slot = slot(type);
+        return slot == UNKNOWN ? "Unknown" : TYPE_NAMES[slot];
+    }
+
+    private static int slot(Integer type) {
+        return type != null && type >= 0 && type < TYPE_NAMES.length ? type : UNKNOWN;
+    }
+}
@@ -0,0 +1,265 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.entity.PosVote;
+import com.blockchain.explorer.entity.SyncCursor;
+import com.blockchain.explorer.entity.ValidatorStats;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.blockchain.explorer.repository.BlockRepository;
+import com.blockchain.explorer.repository.PosVoteRepository;
+import com.blockchain.explorer.repository.SyncCursorRepository;
+import com.blockchain.explorer.repository.ValidatorStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * PoS 验证者统计服务
+ * <p>
+ * 同步每个区块时把 posVoting 解析为 pos_votes 表中的行，并用批量 ON DUPLICATE KEY UPDATE 累加 validator_stats 中的计数器
+ * （领导区块数、投票数、首次出现区块），验证者面板直接读取计数器，无需重新解析历史区块。
+ * 注意：离线重建只重写 blocks / transactions，不会重算本表。
+ */
+@Slf4j
+@Service
+public class ValidatorStatsService {
+
+    /**
+     * posVoting 中的地址：JSON数组 / 逗号分隔 / 连续拼接的20字节地址
+     */
+    private static final Pattern ADDRESS = Pattern.compile("0x[0-9a-fA-F]{40}");
+    private static final Pattern PACKED_ADDRESSES = Pattern.compile("0x(?:[0-9a-fA-F]{40})+");
+    private static final int ADDRESS_HEX_LENGTH = 40;
+
+    /**
+     * sync_cursors 中记录 pos_leader 已转为小写的游标名
+     */
+    private static final String POS_LEADER_CURSOR = "pos_leader_lowercase";
+
+    @Autowired
+    private PosVoteRepository posVoteRepository;
+
+    @Autowired
+    private ValidatorStatsRepository validatorStatsRepository;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private SyncCursorRepository syncCursorRepository;
+
+    /**
+     * 本节点是否已确认历史 pos_leader 转为小写
+     */
+    private volatile boolean posLeadersNormalized = false;
+
+    /**
+     * 把历史区块的 pos_leader 转为小写，窗口统计按小写地址走索引计数
+     * 由领导节点在同步时执行一次，完成后记录在 sync_cursors 中（之后写入的区块在转换时已转为小写）。
+     * 需遍历 pos_leader 索引的全部条目；MySQL 默认的大小写不敏感排序规则下比较本就忽略大小写，不会更新任何行。
+     */
+    public void normalizePosLeaders() {
+        if (posLeadersNormalized) {
+            return;
+        }
+        try {
+            if (syncCursorRepository.existsById(POS_LEADER_CURSOR)) {
+                posLeadersNormalized = true;
+                return;
+            }
+            BigInteger upTo = blockRepository.findMaxBlockNumber();
+            int updated = upTo == null ? 0 : blockBulkRepository.lowerCasePosLeaders(upTo);
+
+            SyncCursor cursor = new SyncCursor();
+            cursor.setName(POS_LEADER_CURSOR);
+            cursor.setBlockNumber(upTo == null ? BigInteger.ZERO : upTo);
+            cursor.setLastUpdated(LocalDateTime.now());
+            syncCursorRepository.save(cursor);
+            posLeadersNormalized = true;
+            log.info("Lower-cased pos_leader of {} blocks up to {}", updated, upTo);
+        } catch (Exception e) {
+            log.warn("Failed to normalize pos_leader, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录已入库区块的领导者和投票者
+     */
+    public void onBlock(Block block) {
+        BigInteger blockNumber = block.getBlockNumber();
+        String leader = normalize(block.getPosLeader());
+        List<String> voters = parseVoters(block.getPosVoting());
+        if (leader == null && voters.isEmpty()) {
+            return;
+        }
+
+        List<PosVote> votes = new ArrayList<>(voters.size());
+        for (int i = 0; i < voters.size(); i++) {
+            PosVote vote = new PosVote();
+            vote.setBlockNumber(blockNumber);
+            vote.setValidator(voters.get(i));
+            vote.setVoteIndex(i);
+            votes.add(vote);
+        }
+        if (!votes.isEmpty()) {
+            blockBulkRepository.insertPosVotesIfAbsent(votes);
+        }
+
+        // 按增量批量累加，不预先读取已有统计
+        Set<String> voterSet = new HashSet<>(voters);
+        Set<String> addresses = new LinkedHashSet<>(voters);
+        if (leader != null) {
+            addresses.add(leader);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ValidatorStats> deltas = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            ValidatorStats delta = new ValidatorStats();
+            delta.setAddress(address);
+            delta.setFirstSeenBlock(blockNumber);
+            if (address.equals(leader)) {
+                delta.setBlocksLed(1L);
+                delta.setLastLedBlock(blockNumber);
+            }
+            if (voterSet.contains(address)) {
+                delta.setVotesCast(1L);
+                delta.setLastVotedBlock(blockNumber);
+            }
+            delta.setLastUpdated(now);
+            deltas.add(delta);
+        }
+        blockBulkRepository.addValidatorStats(deltas);
+    }
+
+    /**
+     * 验证者列表
+     *
+     * @param sortBy blocksLed / votesCast
+     */
+    public List<Map<String, Object>> getValidators(String sortBy, int page, int size) {
+        Page<ValidatorStats> result = validatorStatsRepository.findAll(
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, sortBy)));
+        BigInteger latestBlock = blockRepository.findMaxBlockNumber();
+        List<Map<String, Object>> validators = new ArrayList<>(result.getNumberOfElements());
+        for (ValidatorStats stats : result) {
+            validators.add(toMap(stats, latestBlock));
+        }
+        return validators;
+    }
+
+    /**
+     * 单个验证者统计，window > 0 时额外返回最近 window 个区块内的领导/投票次数（索引计数）
+     *
+     * @return 未出现过的地址返回null
+     */
+    public Map<String, Object> getValidator(String address, long window) {
+        String normalized = normalize(address);
+        ValidatorStats stats = normalized == null ? null
+                : validatorStatsRepository.findByAddress(normalized).orElse(null);
+        if (stats == null) {
+            return null;
+        }
+
+        BigInteger latestBlock = blockRepository.findMaxBlockNumber();
+        Map<String, Object> result = toMap(stats, latestBlock);
+        if (window > 0 && latestBlock != null) {
+            BigInteger fromBlock = latestBlock.subtract(BigInteger.valueOf(window - 1)).max(BigInteger.ZERO);
+            long windowBlocks = latestBlock.subtract(fromBlock).longValue() + 1;
+            long led = blockRepository.countByPosLeaderAndBlockNumberGreaterThanEqual(normalized, fromBlock);
+            long voted = posVoteRepository.countByValidatorAndBlockNumberGreaterThanEqual(normalized, fromBlock);
+
+            Map<String, Object> recent = new HashMap<>();
+            recent.put("fromBlock", fromBlock);
+            recent.put("blocks", windowBlocks);
+            recent.put("blocksLed", led);
+            recent.put("votesCast", voted);
+            recent.put("participationRate", ratio(voted, windowBlocks));
+            result.put("window", recent);
+        }
+        return result;
+    }
+
+    /**
+     * 区块的投票者列表（按 posVoting 中的顺序）
+     */
+    public List<String> getVoters(BigInteger blockNumber) {
+        return posVoteRepository.findByBlockNumberOrderByVoteIndexAsc(blockNumber).stream()
+                .map(PosVote::getValidator)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 解析 posVoting，兼容 JSON 数组、逗号分隔和连续拼接的地址，去重并保持原顺序，无法识别时返回空列表
+     */
+    static List<String> parseVoters(String posVoting) {
+        if (posVoting == null || posVoting.isBlank()) {
+            return List.of();
+        }
+        Set<String> voters = new LinkedHashSet<>();
+        String trimmed = posVoting.trim();
+        if (PACKED_ADDRESSES.matcher(trimmed).matches()) {
+            for (int i = 2; i < trimmed.length(); i += ADDRESS_HEX_LENGTH) {
+                voters.add("0x" + trimmed.substring(i, i + ADDRESS_HEX_LENGTH).toLowerCase(Locale.ROOT));
+            }
+        } else {
+            Matcher matcher = ADDRESS.matcher(trimmed);
+            while (matcher.find()) {
+                voters.add(matcher.group().toLowerCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(voters);
+    }
+
+    private static String normalize(String address) {
+        if (address == null || !ADDRESS.matcher(address.trim()).matches()) {
+            return null;
+        }
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Object> toMap(ValidatorStats stats, BigInteger latestBlock) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("address", stats.getAddress());
+        result.put("blocksLed", stats.getBlocksLed());
+        result.put("votesCast", stats.getVotesCast());
+        result.put("firstSeenBlock", stats.getFirstSeenBlock());
+        result.put("lastLedBlock", stats.getLastLedBlock());
+        result.put("lastVotedBlock", stats.getLastVotedBlock());
+        // 参与率 = 投票数 / 首次出现以来的区块数
+        if (latestBlock != null) {
+            long eligible = latestBlock.subtract(stats.getFirstSeenBlock()).longValue() + 1;
+            result.put("participationRate", ratio(stats.getVotesCast(), eligible));
+        }
+        return result;
+    }
+
+    private static BigDecimal ratio(long numerator, long denominator) {
+        if (denominator <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(numerator).divide(BigDecimal.valueOf(denominator), 4, RoundingMode.HALF_UP);
+    }
+}
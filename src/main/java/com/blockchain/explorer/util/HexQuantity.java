@@ -0,0 +1,131 @@
+package com.blockchain.explorer.util;
+
+import java.math.BigInteger;
+
+/**
+ * RPC 数量字段（QUANTITY）解析
+ * <p>
+ * 节点返回的数量字段几乎都能放进 long：直接按字符累加，不做 substring、不构造中间对象，
+ * 只有有效位数超出 long 范围时才走 new BigInteger 慢路径。
+ * null、空串和 "0x" 均视为 0；带 0x/0X 前缀按十六进制解析，否则按十进制解析（hexToBigInteger 除外）。
+ * 非法字符（包括符号位）抛出 NumberFormatException。
+ */
+public final class HexQuantity {
+
+    /**
+     * 不会溢出 long 的最大有效位数
+     */
+    private static final int SAFE_HEX_DIGITS = 15;
+    private static final int SAFE_DECIMAL_DIGITS = 18;
+
+    private HexQuantity() {
+    }
+
+    /**
+     * 解析为 BigInteger（0x 前缀为十六进制，否则为十进制）
+     */
+    public static BigInteger toBigInteger(String value) {
+        if (isZero(value)) {
+            return BigInteger.ZERO;
+        }
+        int start = prefixLength(value);
+        return parseBigInteger(value, start, start == 2 ? 16 : 10);
+    }
+
+    /**
+     * 解析为 BigInteger，无论是否带 0x 前缀都按十六进制解析
+     */
+    public static BigInteger hexToBigInteger(String value) {
+        if (isZero(value)) {
+            return BigInteger.ZERO;
+        }
+        return parseBigInteger(value, prefixLength(value), 16);
+    }
+
+    /**
+     * 解析为 long（0x 前缀为十六进制，否则为十进制）
+     *
+     * @throws NumberFormatException 非法字符或超出 long 范围
+     */
+    public static long toLong(String value) {
+        if (isZero(value)) {
+            return 0L;
+        }
+        int start = prefixLength(value);
+        int radix = start == 2 ? 16 : 10;
+        int first = skipLeadingZeros(value, start);
+        if (!fitsInLong(value, first, radix)) {
+            throw new NumberFormatException("Quantity out of long range: " + value);
+        }
+        return accumulate(value, first, radix);
+    }
+
+    private static BigInteger parseBigInteger(String value, int start, int radix) {
+        int first = skipLeadingZeros(value, start);
+        if (fitsInLong(value, first, radix)) {
+            return BigInteger.valueOf(accumulate(value, first, radix));
+        }
+        for (int i = first; i < value.length(); i++) {
+            digit(value, i, radix);
+        }
+        return new BigInteger(value.substring(first), radix);
+    }
+
+    /**
+     * 从 first 开始的有效数字是否一定能放进非负 long
+     */
+    private static boolean fitsInLong(String value, int first, int radix) {
+        int digits = value.length() - first;
+        if (radix == 16) {
+            // 16位十六进制时最高位不能超过7，否则占用符号位
+            return digits <= SAFE_HEX_DIGITS || (digits == SAFE_HEX_DIGITS + 1 && digit(value, first, radix) < 8);
+        }
+        return digits <= SAFE_DECIMAL_DIGITS;
+    }
+
+    private static long accumulate(String value, int first, int radix) {
+        long result = 0;
+        for (int i = first; i < value.length(); i++) {
+            result = result * radix + digit(value, i, radix);
+        }
+        return result;
+    }
+
+    private static int skipLeadingZeros(String value, int start) {
+        int i = start;
+        while (i < value.length() - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 只接受 ASCII 数字和 a-f/A-F，比 Character.digit 更严格也更快
+     */
+    private static int digit(String value, int index, int radix) {
+        char c = value.charAt(index);
+        int digit;
+        if (c >= '0' && c <= '9') {
+            digit = c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            digit = c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            digit = c - 'A' + 10;
+        } else {
+            digit = Integer.MAX_VALUE;
+        }
+        if (digit >= radix) {
+            throw new NumberFormatException("Invalid quantity: " + value);
+        }
+        return digit;
+    }
+
+    private static int prefixLength(String value) {
+        return value.length() >= 2 && value.charAt(0) == '0' && (value.charAt(1) == 'x' || value.charAt(1) == 'X')
+                ? 2 : 0;
+    }
+
+    private static boolean isZero(String value) {
+        return value == null || value.isEmpty() || (value.length() == 2 && prefixLength(value) == 2);
+    }
+}
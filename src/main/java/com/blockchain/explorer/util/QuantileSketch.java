@@ -0,0 +1,145 @@
+package com.blockchain.explorer.util;
+
+/**
+ * 可合并的分位数草图（对数分桶直方图，DDSketch思路）
+ * <p>
+ * 值 v 落入下标为 ceil(log_gamma(v)) 的桶，估计值相对误差不超过 relativeAccuracy。
+ * 由于取值范围是正的 long，桶数量天然有上界（1% 精度约 2200 个桶），内存与样本数无关。
+ * 桶计数可以相加也可以相减，因此可用于滑动窗口：窗口草图 = 各区块草图之和。
+ * <p>
+ * 非线程安全，由调用方负责同步。
+ */
+public class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    /**
+     * 桶计数，counts[i] 对应桶下标 offset + i，只覆盖出现过的下标区间
+     */
+    private long[] counts = new long[0];
+    private int offset;
+
+    /**
+     * 小于等于0的值单独计数
+     */
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * 添加一个样本
+     */
+    public void add(long value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            int index = indexOf(value);
+            ensureRange(index, index);
+            counts[index - offset]++;
+        }
+        count++;
+    }
+
+    /**
+     * 合并另一个草图（精度必须相同）
+     */
+    public void merge(QuantileSketch other) {
+        combine(other, 1);
+    }
+
+    /**
+     * 扣减之前合并过的草图，用于滑动窗口移出旧样本
+     */
+    public void subtract(QuantileSketch other) {
+        combine(other, -1);
+    }
+
+    /**
+     * 获取分位数估计值
+     *
+     * @param quantile 0到1之间
+     * @return 估计值，草图为空时返回0
+     */
+    public long quantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return valueOf(offset + i);
+            }
+        }
+        return valueOf(offset + counts.length - 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 当前占用的桶数量
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    private void combine(QuantileSketch other, int sign) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot combine sketches with different accuracy");
+        }
+        if (other.counts.length > 0) {
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            int shift = other.offset - offset;
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[shift + i] += sign * other.counts[i];
+            }
+        }
+        zeroCount += sign * other.zeroCount;
+        count += sign * other.count;
+    }
+
+    private int indexOf(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * 桶的代表值，保证相对误差不超过 relativeAccuracy
+     */
+    private long valueOf(int index) {
+        return Math.round(2 * Math.pow(gamma, index) / (gamma + 1));
+    }
+
+    private void ensureRange(int low, int high) {
+        if (counts.length == 0) {
+            counts = new long[high - low + 1];
+            offset = low;
+            return;
+        }
+        int currentHigh = offset + counts.length - 1;
+        if (low >= offset && high <= currentHigh) {
+            return;
+        }
+        int newLow = Math.min(low, offset);
+        int newHigh = Math.max(high, currentHigh);
+        long[] grown = new long[newHigh - newLow + 1];
+        System.arraycopy(counts, 0, grown, offset - newLow, counts.length);
+        counts = grown;
+        offset = newLow;
+    }
+}
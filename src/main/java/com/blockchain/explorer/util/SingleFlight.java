@@ -0,0 +1,97 @@
+package com.blockchain.explorer.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求合并（single-flight）
+ * <p>
+ * 同一个键同时只有一次上游调用在执行：第一个调用者执行加载，期间到达的相同请求等待并共享其结果（或异常）。
+ * 调用结束后立即移除，不缓存结果，之后的请求会重新调用上游。
+ */
+public class SingleFlight {
+
+    /**
+     * 上游调用
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * 执行或加入进行中的调用
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Loader<T> loader) throws IOException {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return (T) await(existing);
+        }
+
+        calls.incrementAndGet();
+        try {
+            T value = loader.load();
+            created.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * 实际执行的上游调用数
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * 共享了进行中调用结果的请求数
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    /**
+     * 当前进行中的调用数
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for in-flight call");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.blockchain.explorer.config;
+
+import com.blockchain.explorer.entity.Block;
+import com.blockchain.explorer.repository.BlockBulkRepository;
+import com.blockchain.explorer.service.SearchIndexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 读写分离路由测试：主库和从库是两个内嵌 H2（MySQL 兼容模式），各自写入不同的数据，按返回内容判断查询走了哪个库。
+ * 从库的表结构从主库（JPA 建表）复制；延迟检查改为手动调用，定时任务的间隔设为1小时，节点地址不可达。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "blockchain.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "blockchain.datasource.replica.max-lag-blocks=10",
+        "blockchain.datasource.replica.lag-check-interval=3600000",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "blockchain.rpc-url=http://127.0.0.1:1",
+        "blockchain.sync.interval=3600000",
+        "blockchain.mempool.enabled=false",
+        "blockchain.logs.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "NON_KEYWORDS=VALUE,DAY;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "NON_KEYWORDS=VALUE,DAY;DB_CLOSE_DELAY=-1";
+
+    private static boolean replicaSchemaCreated;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private BlockBulkRepository blockBulkRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 直连两个库（不经过路由），用于准备数据和检查写入位置
+     */
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        if (!replicaSchemaCreated) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                if (!statement.startsWith("--") && !statement.startsWith("CREATE USER")) {
+                    replica.execute(statement);
+                }
+            }
+            replicaSchemaCreated = true;
+        }
+        primary.update("DELETE FROM blocks");
+        replica.update("DELETE FROM blocks");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.clear();
+    }
+
+    @Test
+    void getRequestsReadFromReplica() throws Exception {
+        insertBlock(primary, 1, hash('a'));
+        insertBlock(replica, 1, hash('b'));
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isHealthy()).isTrue();
+
+        mockMvc.perform(get("/api/blocks/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockHash").value(hash('b')));
+    }
+
+    @Test
+    void writesAndSyncStayOnPrimary() {
+        insertBlock(primary, 1, hash('a'));
+        insertBlock(replica, 1, hash('a'));
+        replicaLagMonitor.check();
+
+        // 同步线程没有只读标记
+        assertThat(blockBulkRepository.insertBlockIfAbsent(block(2, hash('c')))).isTrue();
+
+        // 标记为只读的线程中，读写事务仍使用主库
+        ReadWriteRoutingDataSource.markReadOnly();
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(blockBulkRepository.insertBlockIfAbsent(block(3, hash('d')))).isTrue());
+
+        assertThat(count(primary, 2)).isEqualTo(1);
+        assertThat(count(primary, 3)).isEqualTo(1);
+        assertThat(count(replica, 2)).isZero();
+        assertThat(count(replica, 3)).isZero();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        insertBlock(primary, 1, hash('a'));
+        insertBlock(primary, 2, hash('c'));
+        insertBlock(replica, 1, hash('b'));
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isHealthy()).isTrue();
+        assertThat(replicaLagMonitor.isLagging()).isTrue();
+
+        // 从库还没有的区块号走主库，已有的仍读从库
+        mockMvc.perform(get("/api/blocks/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockHash").value(hash('c')));
+        mockMvc.perform(get("/api/blocks/1"))
+                .andExpect(jsonPath("$.blockHash").value(hash('b')));
+
+        // 按哈希查询从库未命中时回查主库
+        mockMvc.perform(get("/api/blocks/hash/" + hash('c')))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockNumber").value(2));
+    }
+
+    @Test
+    void replicaBeyondMaxLagIsBypassed() throws Exception {
+        insertBlock(primary, 1, hash('a'));
+        insertBlock(primary, 20, hash('c'));
+        insertBlock(replica, 1, hash('b'));
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isHealthy()).isFalse();
+
+        mockMvc.perform(get("/api/blocks/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blockHash").value(hash('a')));
+    }
+
+    /**
+     * 写入区块，并像同步一样先登记到搜索索引
+     */
+    private void insertBlock(JdbcTemplate jdbcTemplate, long number, String blockHash) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO blocks (block_number, block_hash, timestamp, created_at)"
+                + " VALUES (?, ?, ?, ?)", BigDecimal.valueOf(number), blockHash, now, now);
+        searchIndexService.register(block(number, blockHash), List.of());
+    }
+
+    private Block block(long number, String blockHash) {
+        Block block = new Block();
+        block.setBlockNumber(BigInteger.valueOf(number));
+        block.setBlockHash(blockHash);
+        block.setTimestamp(LocalDateTime.now());
+        block.setTransactionCount(0);
+        return block;
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, long number) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blocks WHERE block_number = ?",
+                Integer.class, BigDecimal.valueOf(number));
+        return count == null ? 0 : count;
+    }
+
+    private static String hash(char digit) {
+        return "0x" + String.valueOf(digit).repeat(64);
+    }
+}
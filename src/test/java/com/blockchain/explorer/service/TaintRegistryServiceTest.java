@@ -0,0 +1,41 @@
+package com.blockchain.explorer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * tainted 字段解析测试
+ */
+class TaintRegistryServiceTest {
+
+    private static final String H1 = "0x" + "AB".repeat(32);
+    private static final String H2 = "0x" + "01".repeat(32);
+
+    @Test
+    void emptyValuesHaveNoHashes() {
+        assertThat(TaintRegistryService.parseTxHashes(null)).isEmpty();
+        assertThat(TaintRegistryService.parseTxHashes("")).isEmpty();
+        assertThat(TaintRegistryService.parseTxHashes("[]")).isEmpty();
+        assertThat(TaintRegistryService.parseTxHashes("0x")).isEmpty();
+    }
+
+    @Test
+    void parsesJsonArrayAndCommaSeparatedLists() {
+        assertThat(TaintRegistryService.parseTxHashes("[\"" + H1 + "\",\"" + H2 + "\"]"))
+                .containsExactly(H1.toLowerCase(), H2);
+        assertThat(TaintRegistryService.parseTxHashes(H2 + ", " + H1)).containsExactly(H2, H1.toLowerCase());
+    }
+
+    @Test
+    void splitsPackedHashesAndRemovesDuplicates() {
+        assertThat(TaintRegistryService.parseTxHashes("0x" + H1.substring(2) + H2.substring(2) + H1.substring(2)))
+                .containsExactly(H1.toLowerCase(), H2);
+    }
+
+    @Test
+    void ignoresAddressesAndTruncatedHashes() {
+        assertThat(TaintRegistryService.parseTxHashes("0x" + "12".repeat(20))).isEmpty();
+        assertThat(TaintRegistryService.parseTxHashes(H1.substring(0, 60))).isEmpty();
+    }
+}
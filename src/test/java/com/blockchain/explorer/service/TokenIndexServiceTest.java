@@ -0,0 +1,93 @@
+package com.blockchain.explorer.service;
+
+import com.blockchain.explorer.entity.EventLog;
+import com.blockchain.explorer.entity.TokenTransfer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transfer 事件解析测试
+ */
+class TokenIndexServiceTest {
+
+    private static final String TOKEN = "0x" + "aa".repeat(20);
+    private static final String FROM = "0x" + "11".repeat(20);
+    private static final String TO = "0x" + "22".repeat(20);
+
+    @Test
+    void parsesErc20Transfer() {
+        TokenTransfer transfer = TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), null, word(1000)));
+
+        assertThat(transfer).isNotNull();
+        assertThat(transfer.getStandard()).isEqualTo(TokenTransfer.ERC20);
+        assertThat(transfer.getToken()).isEqualTo(TOKEN);
+        assertThat(transfer.getFromAddress()).isEqualTo(FROM);
+        assertThat(transfer.getToAddress()).isEqualTo(TO);
+        assertThat(transfer.getValue()).isEqualTo(BigInteger.valueOf(1000));
+        assertThat(transfer.getTokenId()).isNull();
+    }
+
+    @Test
+    void parsesErc721Transfer() {
+        TokenTransfer transfer = TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), word(7), "0x"));
+
+        assertThat(transfer).isNotNull();
+        assertThat(transfer.getStandard()).isEqualTo(TokenTransfer.ERC721);
+        assertThat(transfer.getTokenId()).isEqualTo(BigInteger.valueOf(7));
+        assertThat(transfer.getValue()).isEqualTo(BigInteger.ONE);
+    }
+
+    @Test
+    void readsOnlyTheFirstDataWord() {
+        TokenTransfer transfer = TokenIndexService.parseTransfer(
+                log(topic(FROM), topic(TO), null, word(5) + word(9).substring(2)));
+        assertThat(transfer.getValue()).isEqualTo(BigInteger.valueOf(5));
+    }
+
+    @Test
+    void skipsOtherEventsAndMalformedTransfers() {
+        EventLog approval = log(topic(FROM), topic(TO), null, word(1));
+        approval.setTopic0("0x" + "8c".repeat(32));
+        assertThat(TokenIndexService.parseTransfer(approval)).isNull();
+
+        // 缺少 indexed 参数、没有 data、data 不是十六进制
+        assertThat(TokenIndexService.parseTransfer(log(topic(FROM), null, null, word(1)))).isNull();
+        assertThat(TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), null, "0x"))).isNull();
+        assertThat(TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), null, "0xzz"))).isNull();
+    }
+
+    @Test
+    void skipsValuesTooLargeToStore() {
+        String maxUint256 = "0x" + "f".repeat(64);
+        assertThat(TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), null, maxUint256))).isNull();
+
+        TokenTransfer nft = TokenIndexService.parseTransfer(log(topic(FROM), topic(TO), maxUint256, "0x"));
+        assertThat(nft.getTokenId()).isNull();
+        assertThat(nft.getValue()).isEqualTo(BigInteger.ONE);
+    }
+
+    private static EventLog log(String topic1, String topic2, String topic3, String data) {
+        EventLog eventLog = new EventLog();
+        eventLog.setBlockNumber(BigInteger.TEN);
+        eventLog.setLogIndex(0);
+        eventLog.setTxHash("0x" + "33".repeat(32));
+        eventLog.setAddress(TOKEN);
+        eventLog.setTopic0(TokenIndexService.TRANSFER_TOPIC);
+        eventLog.setTopic1(topic1);
+        eventLog.setTopic2(topic2);
+        eventLog.setTopic3(topic3);
+        eventLog.setData(data);
+        return eventLog;
+    }
+
+    private static String topic(String address) {
+        return "0x" + "0".repeat(24) + address.substring(2);
+    }
+
+    private static String word(long value) {
+        return String.format("0x%064x", value);
+    }
+}
@@ -0,0 +1,51 @@
+package com.blockchain.explorer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * posVoting 解析测试
+ */
+class ValidatorStatsServiceTest {
+
+    private static final String A = "0x" + "Ab".repeat(20);
+    private static final String B = "0x" + "12".repeat(20);
+    private static final String C = "0x" + "cd".repeat(20);
+
+    @Test
+    void emptyValuesHaveNoVoters() {
+        assertThat(ValidatorStatsService.parseVoters(null)).isEmpty();
+        assertThat(ValidatorStatsService.parseVoters("")).isEmpty();
+        assertThat(ValidatorStatsService.parseVoters("  ")).isEmpty();
+        assertThat(ValidatorStatsService.parseVoters("0x")).isEmpty();
+        assertThat(ValidatorStatsService.parseVoters("not an address")).isEmpty();
+    }
+
+    @Test
+    void parsesJsonArrayAndCommaSeparatedLists() {
+        assertThat(ValidatorStatsService.parseVoters("[\"" + A + "\", \"" + B + "\"]"))
+                .containsExactly(A.toLowerCase(), B);
+        assertThat(ValidatorStatsService.parseVoters(A + "," + B + " , " + C))
+                .containsExactly(A.toLowerCase(), B, C);
+    }
+
+    @Test
+    void splitsPackedAddresses() {
+        String packed = "0x" + A.substring(2) + B.substring(2) + C.substring(2);
+        assertThat(ValidatorStatsService.parseVoters(packed)).containsExactly(A.toLowerCase(), B, C);
+    }
+
+    @Test
+    void removesDuplicatesKeepingFirstPosition() {
+        assertThat(ValidatorStatsService.parseVoters(B + "," + A + "," + A.toLowerCase() + "," + B))
+                .containsExactly(B, A.toLowerCase());
+    }
+
+    @Test
+    void ignoresTruncatedAddresses() {
+        // 不足40位的片段不是地址，多出的尾部不会被当作连续拼接的地址拆分
+        assertThat(ValidatorStatsService.parseVoters(A.substring(0, 41))).isEmpty();
+        assertThat(ValidatorStatsService.parseVoters("0x" + A.substring(2) + "12")).containsExactly(A.toLowerCase());
+    }
+}
@@ -0,0 +1,100 @@
+package com.blockchain.explorer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RPC 数量字段解析测试：空值、奇数位数、非法字符、符号位、超长输入，以及与 new BigInteger(hex, 16) 的一致性
+ */
+class HexQuantityTest {
+
+    @Test
+    void emptyValuesAreZero() {
+        assertThat(HexQuantity.toLong(null)).isZero();
+        assertThat(HexQuantity.toLong("")).isZero();
+        assertThat(HexQuantity.toLong("0x")).isZero();
+        assertThat(HexQuantity.toLong("0X")).isZero();
+        assertThat(HexQuantity.toBigInteger("")).isEqualTo(BigInteger.ZERO);
+        assertThat(HexQuantity.toBigInteger("0x")).isEqualTo(BigInteger.ZERO);
+        assertThat(HexQuantity.hexToBigInteger("")).isEqualTo(BigInteger.ZERO);
+    }
+
+    @Test
+    void parsesOddLengthAndLeadingZeros() {
+        assertThat(HexQuantity.toLong("0x0")).isZero();
+        assertThat(HexQuantity.toLong("0x00")).isZero();
+        assertThat(HexQuantity.toLong("0x1")).isEqualTo(1L);
+        assertThat(HexQuantity.toLong("0xabc")).isEqualTo(0xabcL);
+        assertThat(HexQuantity.toLong("0X1A")).isEqualTo(26L);
+        assertThat(HexQuantity.toLong("0x000000000000000000000001")).isEqualTo(1L);
+    }
+
+    @Test
+    void parsesDecimalWithoutPrefix() {
+        assertThat(HexQuantity.toLong("12345")).isEqualTo(12345L);
+        assertThat(HexQuantity.toBigInteger("123456789012345678901234567890"))
+                .isEqualTo(new BigInteger("123456789012345678901234567890"));
+        assertThat(HexQuantity.hexToBigInteger("ff")).isEqualTo(BigInteger.valueOf(255));
+    }
+
+    @Test
+    void rejectsInvalidCharacters() {
+        for (String value : new String[] { "0xg1", "0x-1", "-1", "+1", "12a", " 0x1", "0x1 ", "x", "0x１" }) {
+            assertThatThrownBy(() -> HexQuantity.toLong(value))
+                    .as(value).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> HexQuantity.toBigInteger(value))
+                    .as(value).isInstanceOf(NumberFormatException.class);
+        }
+        // 慢路径（超出 long）同样逐字符校验
+        assertThatThrownBy(() -> HexQuantity.toBigInteger("0x" + "f".repeat(20) + "z"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void sixteenDigitsWithSignBitDoNotTurnNegative() {
+        assertThat(HexQuantity.toLong("0x7fffffffffffffff")).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> HexQuantity.toLong("0x8000000000000000"))
+                .isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> HexQuantity.toLong("0xffffffffffffffff"))
+                .isInstanceOf(NumberFormatException.class);
+        assertThat(HexQuantity.toBigInteger("0x8000000000000000"))
+                .isEqualTo(BigInteger.ONE.shiftLeft(63));
+        assertThat(HexQuantity.toBigInteger("0xffffffffffffffff"))
+                .isEqualTo(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+    }
+
+    @Test
+    void overLongInputFailsForLongButParsesAsBigInteger() {
+        String value = "0x1" + "0".repeat(16);
+        assertThatThrownBy(() -> HexQuantity.toLong(value)).isInstanceOf(NumberFormatException.class);
+        assertThat(HexQuantity.toBigInteger(value)).isEqualTo(BigInteger.ONE.shiftLeft(64));
+
+        String uint256 = "0x" + "f".repeat(64);
+        assertThat(HexQuantity.toBigInteger(uint256))
+                .isEqualTo(BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE));
+    }
+
+    @Test
+    void matchesBigIntegerForRandomHex() {
+        Random random = new Random(42);
+        char[] digits = "0123456789abcdefABCDEF".toCharArray();
+        for (int i = 0; i < 10000; i++) {
+            int length = 1 + random.nextInt(80);
+            StringBuilder hex = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                hex.append(digits[random.nextInt(digits.length)]);
+            }
+            BigInteger expected = new BigInteger(hex.toString(), 16);
+            assertThat(HexQuantity.toBigInteger("0x" + hex)).as(hex.toString()).isEqualTo(expected);
+            assertThat(HexQuantity.hexToBigInteger(hex.toString())).as(hex.toString()).isEqualTo(expected);
+            if (expected.bitLength() < Long.SIZE) {
+                assertThat(HexQuantity.toLong("0x" + hex)).as(hex.toString()).isEqualTo(expected.longValue());
+            }
+        }
+    }
+}